@@ -0,0 +1,64 @@
+package sudoku;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// What SolutionCache costs and saves on a corpus: finding the canonical
+// forms alone, answering every puzzle from a cache that already holds
+// them all, and solving them through Sudoku.solve without a cache
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheBenchmark {
+    @Param({"easy", "hard", "seventeen", "sixteen"})
+    public String corpus;
+
+    private List<String> puzzles;
+    private SolutionCache cache;
+
+    @Setup
+    public void load() {
+        puzzles = Corpus.load(corpus);
+        cache = new SolutionCache(64 << 20);
+        for (String puzzle : puzzles) {
+            cache.solve(puzzle, SolveMode.GUESS);
+        }
+    }
+
+    @Benchmark
+    public void canonicalForm(Blackhole blackhole) {
+        for (String puzzle : puzzles) {
+            blackhole.consume(CanonicalForm.of(puzzle));
+        }
+    }
+
+    @Benchmark
+    public void solveCached(Blackhole blackhole) {
+        for (String puzzle : puzzles) {
+            blackhole.consume(cache.solve(puzzle, SolveMode.GUESS));
+        }
+    }
+
+    @Benchmark
+    public void solveUncached(Blackhole blackhole) {
+        for (String puzzle : puzzles) {
+            blackhole.consume(Sudoku.solve(puzzle, SolveMode.GUESS));
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package sudoku;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// The puzzle sets bundled with the benchmarks, one puzzle per line
+final class Corpus {
+    private Corpus() {
+    }
+
+    static List<String> load(String name) {
+        InputStream in = Corpus.class.getResourceAsStream(name + ".txt");
+        if (in == null) {
+            throw new IllegalArgumentException("no corpus named " + name);
+        }
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.US_ASCII))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.trim().isEmpty()) {
+                    lines.add(line.trim());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,73 @@
+package sudoku;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// The latency of hard puzzles solved one at a time by ParallelSearch on a
+// pool of 1, 2, 4 and 8 workers, against the sequential search. The
+// pathological set holds puzzles known to make a search branch a lot:
+// AI Escargot, Easter Monster, Golden Nugget, Arto Inkala's 2010 puzzle
+// and a 17-clue puzzle built against backtracking. Past the number of
+// cores the extra workers only show the overhead of splitting.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelSearchBenchmark {
+    @Param({"pathological", "hard", "sixteen"})
+    public String corpus;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private List<String> puzzles;
+    private ForkJoinPool pool;
+    private ParallelSearch search;
+
+    @Setup
+    public void load() {
+        puzzles = Corpus.load(corpus);
+        pool = new ForkJoinPool(threads);
+        search = new ParallelSearch(pool);
+    }
+
+    @TearDown
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public void solveParallel(Blackhole blackhole) {
+        for (String puzzle : puzzles) {
+            SudokuSolver solver = new SudokuSolver(SudokuSolver.parseLine(puzzle));
+            blackhole.consume(search.solve(solver));
+        }
+    }
+
+    // The sequential search on the same puzzles, which ignores threads
+    @Benchmark
+    public void solveSequential(Blackhole blackhole) {
+        for (String puzzle : puzzles) {
+            SudokuSolver solver = new SudokuSolver(SudokuSolver.parseLine(puzzle));
+            solver.setGuessingAllowed(true);
+            blackhole.consume(solver.solve());
+        }
+    }
+}
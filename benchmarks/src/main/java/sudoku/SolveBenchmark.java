@@ -0,0 +1,94 @@
+package sudoku;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// Parses and solves every puzzle of a corpus, guessing where the
+// techniques get stuck, so one operation is one pass over the corpus
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolveBenchmark {
+    @Param({"easy", "hard", "seventeen", "sixteen"})
+    public String corpus;
+
+    private List<String> puzzles;
+    private final SolutionCount solutionCount = new SolutionCount(2);
+    private char[] solution;
+
+    @Setup
+    public void load() {
+        puzzles = Corpus.load(corpus);
+        solution = new char[puzzles.get(0).length()];
+    }
+
+    @Benchmark
+    public void solveCorpus(Blackhole blackhole) {
+        for (String puzzle : puzzles) {
+            SudokuSolver solver = new SudokuSolver(SudokuSolver.parseLine(puzzle));
+            solver.setGuessingAllowed(true);
+            blackhole.consume(solver.solve());
+        }
+    }
+
+    // The same with the solver of the thread from SolverPool, loaded with
+    // puzzle after puzzle, which should show no allocation under -prof gc
+    @Benchmark
+    public void solveCorpusPooled(Blackhole blackhole) {
+        for (String puzzle : puzzles) {
+            SudokuSolver solver = SolverPool.get(SudokuSolver.gridSizeOf(puzzle.length()));
+            solver.setGuessingAllowed(true);
+            solver.load(puzzle);
+            blackhole.consume(solver.solve());
+        }
+    }
+
+    // The exact cover solver on the same puzzles, as a yardstick
+    @Benchmark
+    public void solveCorpusDancingLinks(Blackhole blackhole) {
+        for (String puzzle : puzzles) {
+            blackhole.consume(new DancingLinksSolver(SudokuSolver.parseLine(puzzle)).solve());
+        }
+    }
+
+    // The uniqueness check of -unique and the generator, which searches on
+    // past the first solution, with a new SolutionCount for every puzzle
+    @Benchmark
+    public void countSolutionsCorpus(Blackhole blackhole) {
+        for (String puzzle : puzzles) {
+            SudokuSolver solver = SolverPool.get(SudokuSolver.gridSizeOf(puzzle.length()));
+            solver.load(puzzle);
+            blackhole.consume(solver.countSolutions(2).getCount());
+        }
+    }
+
+    // The same reusing one SolutionCount and copying the solution into an
+    // array of the caller, which should show no allocation under -prof gc
+    @Benchmark
+    public void countSolutionsCorpusReused(Blackhole blackhole) {
+        for (String puzzle : puzzles) {
+            SudokuSolver solver = SolverPool.get(SudokuSolver.gridSizeOf(puzzle.length()));
+            solver.load(puzzle);
+            if (solver.countSolutions(solutionCount).getCount() > 0) {
+                solutionCount.getSolution(0, solution);
+            }
+            blackhole.consume(solution);
+        }
+    }
+}
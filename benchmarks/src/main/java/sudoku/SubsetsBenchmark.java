@@ -0,0 +1,45 @@
+package sudoku;
+
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// All the k-subsets of the nine symbols of a unit
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SubsetsBenchmark {
+    @Param({"2", "3", "4", "5", "6", "7", "8"})
+    public int k;
+
+    private Subsets subsets;
+
+    @Setup
+    public void prepare() {
+        Set<Integer> set = new TreeSet<Integer>();
+        for (int i = 1; i <= 9; ++i) {
+            set.add(i);
+        }
+        subsets = new Subsets(set, k);
+    }
+
+    @Benchmark
+    public Set<Set<Integer>> getSubSets() {
+        return subsets.getSubSets();
+    }
+}
@@ -0,0 +1,235 @@
+package sudoku;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Times one technique at a time on the states several puzzles are in
+// part way through a solve: the singles have done what they can, then
+// the values of the solution go into a fixed number of the empty cells,
+// the way the search would place them. One operation runs the technique
+// once on each state, first rewinding the solver to it. The rewind
+// benchmark gives the cost of the rewinds alone.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TechniqueBenchmark {
+    private static final int STATES = 4;
+
+    @Param({"hard", "pathological", "sixteen"})
+    public String corpus;
+
+    // The values of the solution placed after the singles
+    @Param({"0", "8"})
+    public int placed;
+
+    private SudokuSolver solver;
+    // A cell of each state and its first possibility for setValueInGrid
+    private final int[] rows = new int[STATES];
+    private final int[] cols = new int[STATES];
+    private final char[] values = new char[STATES];
+
+    @Setup
+    public void prepare() {
+        List<String> puzzles = Corpus.load(corpus);
+        int states = 0;
+        for (int i = 0; i < puzzles.size() && states < STATES; ++i) {
+            if (prepareState(puzzles.get(i), states)) {
+                ++states;
+            }
+        }
+        if (states < STATES) {
+            throw new IllegalStateException("only " + states + " puzzles of " + corpus + " leave empty cells");
+        }
+    }
+
+    // Saves the state of one puzzle at the given depth, false if the
+    // puzzle is solved before it gets there
+    private boolean prepareState(String puzzle, int depth) {
+        int size = SudokuSolver.gridSizeOf(puzzle.length());
+        if (solver == null) {
+            solver = new SudokuSolver(size);
+        }
+        for (Technique technique : Technique.values()) {
+            if (technique != Technique.SINGLE && technique != Technique.GUESSING) {
+                solver.setTechniqueEnabled(technique, technique == Technique.HIDDEN_SINGLE);
+            }
+        }
+        solver.load(puzzle);
+        if (solver.solve()) {
+            return false;
+        }
+        DancingLinksSolver reference = new DancingLinksSolver(SudokuSolver.parseLine(puzzle));
+        if (!reference.solve()) {
+            throw new IllegalStateException("no solution for " + puzzle);
+        }
+        String solution = reference.getSolution();
+        // Spread the placed values evenly over the empty cells
+        String grid = solver.getSolution();
+        int empty = 0;
+        for (int cell = 0; cell < grid.length(); ++cell) {
+            if (grid.charAt(cell) == '.') {
+                ++empty;
+            }
+        }
+        int step = empty / (placed + 1);
+        if (step == 0) {
+            return false;
+        }
+        int seen = 0;
+        for (int cell = 0; cell < grid.length(); ++cell) {
+            if (grid.charAt(cell) == '.' && ++seen % step == 0 && seen / step <= placed) {
+                solver.setValueInGrid(cell / size, cell % size, solution.charAt(cell), Technique.GUESSING);
+            }
+        }
+        for (Technique technique : Technique.values()) {
+            if (technique != Technique.SINGLE && technique != Technique.GUESSING) {
+                solver.setTechniqueEnabled(technique, true);
+            }
+        }
+        for (int cell = 0; cell < size * size; ++cell) {
+            if (!solver.isSolved(cell / size, cell % size)) {
+                rows[depth] = cell / size;
+                cols[depth] = cell % size;
+                values[depth] = solver.getPossibilities(rows[depth], cols[depth]).charAt(0);
+                solver.saveState(depth);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    public void rewind() {
+        for (int depth = 0; depth < STATES; ++depth) {
+            solver.restoreState(depth);
+            solver.markAllDirty();
+        }
+    }
+
+    @Benchmark
+    public void setValueInGrid() {
+        for (int depth = 0; depth < STATES; ++depth) {
+            solver.restoreState(depth);
+            solver.setValueInGrid(rows[depth], cols[depth], values[depth], Technique.GUESSING);
+        }
+    }
+
+    @Benchmark
+    public int findHiddenSingle() {
+        int changed = 0;
+        for (int depth = 0; depth < STATES; ++depth) {
+            solver.restoreState(depth);
+            solver.markAllDirty();
+            if (solver.runTechnique(Technique.HIDDEN_SINGLE)) {
+                ++changed;
+            }
+        }
+        return changed;
+    }
+
+    @Benchmark
+    public int findHiddenSet() {
+        int changed = 0;
+        for (int depth = 0; depth < STATES; ++depth) {
+            solver.restoreState(depth);
+            solver.markAllDirty();
+            if (solver.runTechnique(Technique.HIDDEN_SET)) {
+                ++changed;
+            }
+        }
+        return changed;
+    }
+
+    @Benchmark
+    public int findClosedSet() {
+        int changed = 0;
+        for (int depth = 0; depth < STATES; ++depth) {
+            solver.restoreState(depth);
+            solver.markAllDirty();
+            if (solver.runTechnique(Technique.CLOSED_SET)) {
+                ++changed;
+            }
+        }
+        return changed;
+    }
+
+    @Benchmark
+    public int findNXWing() {
+        int changed = 0;
+        for (int depth = 0; depth < STATES; ++depth) {
+            solver.restoreState(depth);
+            solver.markAllDirty();
+            if (solver.runTechnique(Technique.NX_WING)) {
+                ++changed;
+            }
+        }
+        return changed;
+    }
+
+    @Benchmark
+    public int findXYWing() {
+        int changed = 0;
+        for (int depth = 0; depth < STATES; ++depth) {
+            solver.restoreState(depth);
+            solver.markAllDirty();
+            if (solver.runTechnique(Technique.XY_WING)) {
+                ++changed;
+            }
+        }
+        return changed;
+    }
+
+    @Benchmark
+    public int findXYZWing() {
+        int changed = 0;
+        for (int depth = 0; depth < STATES; ++depth) {
+            solver.restoreState(depth);
+            solver.markAllDirty();
+            if (solver.runTechnique(Technique.XYZ_WING)) {
+                ++changed;
+            }
+        }
+        return changed;
+    }
+
+    @Benchmark
+    public int findSimpleColoring() {
+        int changed = 0;
+        for (int depth = 0; depth < STATES; ++depth) {
+            solver.restoreState(depth);
+            solver.markAllDirty();
+            if (solver.runTechnique(Technique.SIMPLE_COLORING)) {
+                ++changed;
+            }
+        }
+        return changed;
+    }
+
+    @Benchmark
+    public int findXChain() {
+        int changed = 0;
+        for (int depth = 0; depth < STATES; ++depth) {
+            solver.restoreState(depth);
+            solver.markAllDirty();
+            if (solver.runTechnique(Technique.X_CHAIN)) {
+                ++changed;
+            }
+        }
+        return changed;
+    }
+}
@@ -0,0 +1,64 @@
+package sudoku;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// Solves a corpus, guessing where the techniques get stuck, with every
+// technique switched on but some, to weigh what each costs against the
+// search it saves. Switching off the four after NX_WING gives the default.
+// BatchSolver -stats with -Dsudoku.enable and -Dsudoku.disable set the
+// same way counts the guesses.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TechniqueSwitchBenchmark {
+    @Param({"hard", "seventeen", "pathological"})
+    public String corpus;
+
+    // The techniques switched off, none for the empty string
+    @Param({"", "NX_WING", "XY_WING", "XYZ_WING", "SIMPLE_COLORING", "X_CHAIN",
+            "XY_WING,XYZ_WING,SIMPLE_COLORING,X_CHAIN"})
+    public String disabled;
+
+    private List<String> puzzles;
+    private SudokuSolver solver;
+
+    @Setup
+    public void load() {
+        puzzles = Corpus.load(corpus);
+        solver = new SudokuSolver(SudokuSolver.gridSizeOf(puzzles.get(0).length()));
+        solver.setGuessingAllowed(true);
+        for (Technique technique : Technique.values()) {
+            if (technique != Technique.SINGLE && technique != Technique.GUESSING) {
+                solver.setTechniqueEnabled(technique, true);
+            }
+        }
+        for (Technique technique : SudokuSolver.parseTechniques(disabled)) {
+            solver.setTechniqueEnabled(technique, false);
+        }
+    }
+
+    @Benchmark
+    public void solveCorpus(Blackhole blackhole) {
+        for (String puzzle : puzzles) {
+            solver.load(puzzle);
+            blackhole.consume(solver.solve());
+        }
+    }
+}
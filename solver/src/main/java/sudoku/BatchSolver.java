@@ -0,0 +1,243 @@
+package sudoku;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+// Solves a stream of puzzles in one JVM, one puzzle per line in the
+// common 81 character format, such as
+// 53..7....6..195....98....6.8...6...34..8.3..17...2...6.6....28....419..5....8..79
+// Writes one line per puzzle to stdout: the solution, the partly solved
+// grid if the solver got stuck, or the input line if it was invalid.
+// Reports the throughput and latency on stderr at the end.
+//
+// Usage: java BatchSolver [-guess | -dlx | -unique | -parallel] [-stats] [-cache mb] [-packed] [-out file] [puzzle file]
+//        (reads stdin without a file)
+// With -guess the puzzles the techniques cannot finish are searched,
+// with -dlx the puzzles are solved by DancingLinksSolver instead,
+// with -unique only puzzles with exactly one solution count as solved,
+// with -parallel the search of each puzzle is split over the cores,
+// with -stats the SolveStats of the solves are reported as histograms,
+// with -cache puzzles go through a SolutionCache of that many megabytes.
+// With -out the puzzle file is memory-mapped and the lines go to the out
+// file through a memory map too, which is the fast way through a corpus
+// of millions of puzzles; -packed reads a file of PackedPuzzles then.
+public class BatchSolver {
+    private final SolveMode mode;
+    private int solved = 0;
+    private int unsolved = 0;
+    private int invalid = 0;
+    // Puzzles with more than one solution, only counted in UNIQUE mode
+    private int multiple = 0;
+    private long[] latencies = new long[1024];
+    private int latencyCount = 0;
+    private final BatchStats stats = new BatchStats();
+    private SolutionCache cache;
+
+    public BatchSolver(SolveMode mode) {
+        this.mode = mode;
+    }
+
+    // Solves through the cache from now on, null to solve every puzzle
+    public void setCache(SolutionCache cache) {
+        this.cache = cache;
+    }
+
+    public static void main(String[] args) throws IOException {
+        SolveMode mode = SolveMode.TECHNIQUES;
+        boolean printStats = false;
+        boolean packed = false;
+        String fileName = null;
+        String outName = null;
+        SolutionCache cache = null;
+        for (int i = 0; i < args.length; ++i) {
+            String arg = args[i];
+            if (arg.equals("-stats")) {
+                printStats = true;
+            } else if (arg.equals("-cache")) {
+                cache = new SolutionCache(Long.parseLong(args[++i]) << 20);
+            } else if (arg.equals("-packed")) {
+                packed = true;
+            } else if (arg.equals("-out")) {
+                outName = args[++i];
+            } else if (SolveMode.fromFlag(arg) != null) {
+                mode = SolveMode.fromFlag(arg);
+            } else {
+                fileName = arg;
+            }
+        }
+        if (outName != null || packed) {
+            if (outName == null || fileName == null) {
+                throw new IllegalArgumentException("-packed and -out need both a puzzle file and an out file");
+            }
+            BatchSolver batch = new BatchSolver(mode);
+            batch.setCache(cache);
+            long start = System.nanoTime();
+            try (MappedPuzzleReader reader = new MappedPuzzleReader(Paths.get(fileName), packed);
+                 MappedPuzzleWriter writer = new MappedPuzzleWriter(Paths.get(outName), false)) {
+                batch.solveAll(reader, writer);
+            }
+            long elapsed = System.nanoTime() - start;
+            System.err.println(batch.report(elapsed));
+            if (cache != null) {
+                System.err.println(cache);
+            }
+            if (printStats) {
+                System.err.println(batch.getStats());
+            }
+            return;
+        }
+        BufferedReader reader = fileName != null
+                ? new BufferedReader(new FileReader(fileName))
+                : new BufferedReader(new InputStreamReader(System.in));
+        Writer writer = new BufferedWriter(new OutputStreamWriter(System.out));
+        BatchSolver batch = new BatchSolver(mode);
+        batch.setCache(cache);
+        long start = System.nanoTime();
+        batch.solveAll(reader, writer);
+        long elapsed = System.nanoTime() - start;
+        writer.flush();
+        reader.close();
+        System.err.println(batch.report(elapsed));
+        if (cache != null) {
+            System.err.println(cache);
+        }
+        if (printStats) {
+            System.err.println(batch.getStats());
+        }
+    }
+
+    public void solveAll(BufferedReader reader, Writer writer) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            writer.write(solveLine(line));
+            writer.write('\n');
+        }
+    }
+
+    // Solves a mapped file of puzzles into a mapped file of lines. The
+    // techniques, with or without guessing, load each puzzle from the mapped
+    // bytes and write the grid back from a reused char[], so no String is
+    // made for a valid puzzle; the other modes and the cache go through solveLine.
+    public void solveAll(MappedPuzzleReader reader, MappedPuzzleWriter writer) throws IOException {
+        char[] grid = new char[0];
+        while (reader.next()) {
+            if (cache != null || mode != SolveMode.TECHNIQUES && mode != SolveMode.GUESS) {
+                writer.write(solveLine(reader.line()));
+                continue;
+            }
+            long start = System.nanoTime();
+            SudokuSolver solver;
+            try {
+                solver = SolverPool.get(reader.gridSize());
+                solver.setGuessingAllowed(mode == SolveMode.GUESS);
+                reader.loadInto(solver);
+            } catch (IllegalArgumentException e) {
+                solver = null;
+            }
+            if (solver == null || solver.hasConflictingValues()) {
+                ++invalid;
+                writer.write(reader.line());
+            } else {
+                if (solver.solve()) {
+                    ++solved;
+                } else {
+                    ++unsolved;
+                }
+                int cellCount = solver.getGridSize() * solver.getGridSize();
+                if (grid.length != cellCount) {
+                    grid = new char[cellCount];
+                }
+                solver.getSolution(grid);
+                writer.write(grid, cellCount);
+                if (SolveStats.ENABLED) {
+                    stats.record(solver.getStats());
+                }
+            }
+            recordLatency(System.nanoTime() - start);
+        }
+    }
+
+    // Solves one puzzle and records its outcome, returns the line to write out
+    public String solveLine(String line) {
+        SolveResult result = cache != null ? cache.solve(line, mode) : Sudoku.solve(line, mode);
+        switch (result.getStatus()) {
+            case SOLVED:
+                ++solved;
+                break;
+            case UNSOLVED:
+            case NO_SOLUTION:
+                ++unsolved;
+                break;
+            case MULTIPLE_SOLUTIONS:
+                ++multiple;
+                break;
+            default:
+                ++invalid;
+        }
+        recordLatency(result.getNanos());
+        if (result.getStats() != null) {
+            stats.record(result.getStats());
+        }
+        return result.getGrid();
+    }
+
+    // Adds the outcomes recorded by another batch to this one
+    public void merge(BatchSolver other) {
+        solved += other.solved;
+        unsolved += other.unsolved;
+        invalid += other.invalid;
+        multiple += other.multiple;
+        if (latencyCount + other.latencyCount > latencies.length) {
+            latencies = Arrays.copyOf(latencies, latencyCount + other.latencyCount);
+        }
+        System.arraycopy(other.latencies, 0, latencies, latencyCount, other.latencyCount);
+        latencyCount += other.latencyCount;
+        stats.merge(other.stats);
+    }
+
+    public BatchStats getStats() {
+        return stats;
+    }
+
+    public int getPuzzleCount() {
+        return solved + unsolved + invalid + multiple;
+    }
+
+    private void recordLatency(long nanos) {
+        if (latencyCount == latencies.length) {
+            latencies = Arrays.copyOf(latencies, latencyCount * 2);
+        }
+        latencies[latencyCount++] = nanos;
+    }
+
+    public String report(long elapsedNanos) {
+        int total = getPuzzleCount();
+        long[] sorted = Arrays.copyOf(latencies, latencyCount);
+        Arrays.sort(sorted);
+        double seconds = elapsedNanos / 1e9;
+        return String.format("%d puzzles in %.3f s, %.1f puzzles/sec, median %.1f us, p99 %.1f us"
+                        + ", solved %d, unsolved %d, invalid %d" + (mode == SolveMode.UNIQUE ? ", multiple " + multiple : ""),
+                total, seconds, total / seconds,
+                percentile(sorted, 50) / 1e3, percentile(sorted, 99) / 1e3,
+                solved, unsolved, invalid);
+    }
+
+    private static long percentile(long[] sorted, int percent) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(sorted.length * percent / 100.0) - 1;
+        return sorted[Math.max(0, index)];
+    }
+}
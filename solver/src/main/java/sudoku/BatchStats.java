@@ -0,0 +1,76 @@
+package sudoku;
+
+// The SolveStats of a batch of solves, each metric as a Histogram over
+// the solves, so both typical and worst cases show.
+public class BatchStats {
+    private static final int TECHNIQUES = Technique.values().length;
+
+    private final Histogram[] runs = newHistograms(TECHNIQUES);
+    private final Histogram[] eliminations = newHistograms(TECHNIQUES);
+    private final Histogram[] nanos = newHistograms(TECHNIQUES);
+    private final Histogram combinations = new Histogram();
+    private final Histogram guesses = new Histogram();
+    private final Histogram backtracks = new Histogram();
+    private final Histogram maxGuessDepth = new Histogram();
+
+    private static Histogram[] newHistograms(int count) {
+        Histogram[] histograms = new Histogram[count];
+        for (int i = 0; i < count; ++i) {
+            histograms[i] = new Histogram();
+        }
+        return histograms;
+    }
+
+    public void record(SolveStats stats) {
+        for (int i = 0; i < TECHNIQUES; ++i) {
+            runs[i].record(stats.runs[i]);
+            eliminations[i].record(stats.eliminations[i]);
+            nanos[i].record(stats.nanos[i]);
+        }
+        combinations.record(stats.combinations);
+        guesses.record(stats.guesses);
+        backtracks.record(stats.backtracks);
+        maxGuessDepth.record(stats.maxGuessDepth);
+    }
+
+    public void merge(BatchStats other) {
+        for (int i = 0; i < TECHNIQUES; ++i) {
+            runs[i].merge(other.runs[i]);
+            eliminations[i].merge(other.eliminations[i]);
+            nanos[i].merge(other.nanos[i]);
+        }
+        combinations.merge(other.combinations);
+        guesses.merge(other.guesses);
+        backtracks.merge(other.backtracks);
+        maxGuessDepth.merge(other.maxGuessDepth);
+    }
+
+    public Histogram getRuns(Technique technique) {
+        return runs[technique.ordinal()];
+    }
+
+    public Histogram getEliminations(Technique technique) {
+        return eliminations[technique.ordinal()];
+    }
+
+    public Histogram getNanos(Technique technique) {
+        return nanos[technique.ordinal()];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("per solve:\n");
+        for (Technique technique : Technique.values()) {
+            if (technique != Technique.GUESSING) {
+                sb.append(String.format("%-18s runs         %s%n", technique, runs[technique.ordinal()]));
+                sb.append(String.format("%-18s eliminations %s%n", "", eliminations[technique.ordinal()]));
+                sb.append(String.format("%-18s ns           %s%n", "", nanos[technique.ordinal()]));
+            }
+        }
+        sb.append(String.format("%-18s %s%n", "combinations", combinations));
+        sb.append(String.format("%-18s %s%n", "guesses", guesses));
+        sb.append(String.format("%-18s %s%n", "backtracks", backtracks));
+        sb.append(String.format("%-18s %s", "max guess depth", maxGuessDepth));
+        return sb.toString();
+    }
+}
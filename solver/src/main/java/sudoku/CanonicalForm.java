@@ -0,0 +1,421 @@
+package sudoku;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// A puzzle turned into one fixed representative of all the puzzles that
+// are the same up to the symmetries of the grid, together with the
+// transform that took it there, so a grid of the canonical puzzle such as
+// its solution can be turned back into a grid of the puzzle.
+//
+// For 9x9 the symmetries are transposing, swapping bands, rows within a
+// band, stacks and columns within a stack, and relabeling the digits. The
+// canonical puzzle is the one with its givens as early as they go, row by
+// row, and of those the smallest line with . before the digits and the
+// digits relabeled 1, 2, 3 ... in the order they first appear. Trying
+// every transform is out of the question, so the search builds the
+// pattern of givens a row at a time, keeping only the rows that tie for
+// the best at each step and refining which columns may still swap as it
+// goes. Only the few transforms left are relabeled and compared. Putting
+// the givens first rather than the empty cells starts from the fullest
+// rows, which tie less often and split the columns sooner. A pattern with many
+// symmetries, such as a nearly empty grid, makes that search blow up;
+// past a budget the form falls back to the relabeling alone, which still
+// finds repeats and relabeled copies but is not minimal. The other grid
+// sizes always use the relabeling alone.
+final class CanonicalForm {
+    private static final int SIZE = 9;
+    private static final int BLOCK = 3;
+    // The rows tried plus the transforms compared before a 9x9 search gives
+    // up, several times what puzzles take even with a symmetric pattern
+    private static final int SEARCH_BUDGET = 512;
+    private static final int STACK_MASK = (1 << BLOCK) - 1;
+    // The orders of the three stacks
+    private static final int[][] STACK_ORDERS = {
+            {0, 1, 2}, {0, 2, 1}, {1, 0, 2}, {1, 2, 0}, {2, 0, 1}, {2, 1, 0}};
+
+    private final int gridSize;
+    private final char[] alphabet;
+    private final String key;
+    // The cell of the puzzle at each cell of the canonical puzzle
+    private final int[] cellOf;
+    // The symbol index in the puzzle of each symbol index in the canonical puzzle, and back
+    private final int[] symbolOf;
+    private final int[] labelOf;
+    private final boolean minimal;
+
+    private CanonicalForm(int gridSize, char[] alphabet, int[] values, int[] cellOf, boolean minimal) {
+        this.gridSize = gridSize;
+        this.alphabet = alphabet;
+        this.cellOf = cellOf;
+        this.minimal = minimal;
+        labelOf = new int[gridSize];
+        Arrays.fill(labelOf, -1);
+        char[] line = new char[cellOf.length];
+        int labels = 0;
+        for (int cell = 0; cell < cellOf.length; ++cell) {
+            int value = values[cellOf[cell]];
+            if (value < 0) {
+                line[cell] = '.';
+            } else {
+                if (labelOf[value] < 0) {
+                    labelOf[value] = labels++;
+                }
+                line[cell] = alphabet[labelOf[value]];
+            }
+        }
+        // Symbols missing from the puzzle take the labels left, in order
+        for (int value = 0; value < gridSize; ++value) {
+            if (labelOf[value] < 0) {
+                labelOf[value] = labels++;
+            }
+        }
+        symbolOf = new int[gridSize];
+        for (int value = 0; value < gridSize; ++value) {
+            symbolOf[labelOf[value]] = value;
+        }
+        key = new String(line);
+    }
+
+    // The canonical form of a puzzle line, null if the line is no puzzle
+    // or two of its givens clash
+    static CanonicalForm of(String puzzle) {
+        int gridSize;
+        try {
+            gridSize = SudokuSolver.gridSizeOf(puzzle.length());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        int[] values = new int[gridSize * gridSize];
+        long[] rows = new long[gridSize];
+        long[] cols = new long[gridSize];
+        long[] boxes = new long[gridSize];
+        int blockSize = (int) Math.sqrt(gridSize);
+        for (int cell = 0; cell < values.length; ++cell) {
+            char c = puzzle.charAt(cell);
+            int value = SudokuSolver.indexOfSymbol(c, gridSize);
+            values[cell] = value;
+            if (value < 0) {
+                if (c != '.' && c != '0') {
+                    return null;
+                }
+                continue;
+            }
+            int row = cell / gridSize;
+            int col = cell % gridSize;
+            int box = row / blockSize * blockSize + col / blockSize;
+            long bit = 1L << value;
+            if (((rows[row] | cols[col] | boxes[box]) & bit) != 0) {
+                return null;
+            }
+            rows[row] |= bit;
+            cols[col] |= bit;
+            boxes[box] |= bit;
+        }
+        char[] alphabet = SudokuSolver.alphabet(gridSize);
+        if (gridSize == SIZE) {
+            int[] cellOf = new Search(values).run();
+            if (cellOf != null) {
+                return new CanonicalForm(gridSize, alphabet, values, cellOf, true);
+            }
+        }
+        int[] identity = new int[values.length];
+        for (int cell = 0; cell < identity.length; ++cell) {
+            identity[cell] = cell;
+        }
+        return new CanonicalForm(gridSize, alphabet, values, identity, false);
+    }
+
+    // The canonical puzzle, the same for every puzzle equivalent to this one
+    // when both forms are minimal
+    String key() {
+        return key;
+    }
+
+    // False if the search ran over its budget and only the digits were relabeled
+    boolean isMinimal() {
+        return minimal;
+    }
+
+    // A grid of the puzzle, such as its solution, moved to the canonical puzzle
+    String toCanonical(String grid) {
+        char[] line = new char[cellOf.length];
+        for (int cell = 0; cell < line.length; ++cell) {
+            line[cell] = relabel(grid.charAt(cellOf[cell]), labelOf);
+        }
+        return new String(line);
+    }
+
+    // A grid of the canonical puzzle moved back to the puzzle
+    String fromCanonical(String grid) {
+        char[] line = new char[cellOf.length];
+        for (int cell = 0; cell < line.length; ++cell) {
+            line[cellOf[cell]] = relabel(grid.charAt(cell), symbolOf);
+        }
+        return new String(line);
+    }
+
+    private char relabel(char c, int[] map) {
+        int value = SudokuSolver.indexOfSymbol(c, gridSize);
+        return value < 0 ? c : alphabet[map[value]];
+    }
+
+    // The search for the smallest 9x9 form. Rows are chosen one at a time,
+    // and columns as far as the rows so far tell them apart: the columns
+    // of a stack that have agreed on every row so far form a cell, a mask
+    // of columns still free to swap, and the cells are in order. A pattern
+    // has a bit set for each empty cell, so the smallest pattern for the
+    // next row puts the givens first in each cell, which splits it in two.
+    private static final class Search {
+        private final int[] values;
+        // Bit c of rowEmpties[t][r] is set if row r, column c is empty, with t = 1 for the transposed grid
+        private final int[][] rowEmpties = new int[2][SIZE];
+        private int work = 0;
+        // The smallest pattern rows found so far, known below bestDepth
+        private final int[] best = new int[SIZE];
+        private int bestDepth = 0;
+        // The transforms that give the best pattern: the transpose flag,
+        // the row order, the column order and the bits of the positions
+        // where each cell of columns starts
+        private final List<int[]> leaves = new ArrayList<>();
+        private int transpose;
+        private final int[] rowOrder = new int[SIZE];
+        // The cells of columns before the row at each depth is placed
+        private final int[][] cells = new int[SIZE + 1][SIZE];
+        private final int[] cellCount = new int[SIZE + 1];
+        // The smallest line and its cells while the leaves are relabeled
+        private int[] bestLine;
+        private int[] bestCellOf;
+
+        Search(int[] values) {
+            this.values = values;
+            for (int row = 0; row < SIZE; ++row) {
+                for (int col = 0; col < SIZE; ++col) {
+                    if (values[row * SIZE + col] < 0) {
+                        rowEmpties[0][row] |= 1 << col;
+                        rowEmpties[1][col] |= 1 << row;
+                    }
+                }
+            }
+        }
+
+        // The cell of the puzzle at each canonical cell, null over budget
+        int[] run() {
+            int[] patterns = new int[2 * SIZE];
+            int smallest = Integer.MAX_VALUE;
+            for (int t = 0; t < 2; ++t) {
+                for (int row = 0; row < SIZE; ++row) {
+                    patterns[t * SIZE + row] = firstRowPattern(rowEmpties[t][row]);
+                    smallest = Math.min(smallest, patterns[t * SIZE + row]);
+                }
+            }
+            best[0] = smallest;
+            bestDepth = 1;
+            for (int t = 0; t < 2; ++t) {
+                transpose = t;
+                for (int row = 0; row < SIZE; ++row) {
+                    if (patterns[t * SIZE + row] != smallest) {
+                        continue;
+                    }
+                    int empties = rowEmpties[t][row];
+                    for (int[] stacks : STACK_ORDERS) {
+                        // Only the orders that put the stacks with more givens first
+                        if (stackCount(empties, stacks[0]) > stackCount(empties, stacks[1])
+                                || stackCount(empties, stacks[1]) > stackCount(empties, stacks[2])) {
+                            continue;
+                        }
+                        for (int i = 0; i < BLOCK; ++i) {
+                            cells[0][i] = STACK_MASK << (stacks[i] * BLOCK);
+                        }
+                        cellCount[0] = BLOCK;
+                        rowOrder[0] = row;
+                        refine(empties, 0);
+                        if (!search(1, 1 << row)) {
+                            return null;
+                        }
+                    }
+                }
+            }
+            int[] line = new int[SIZE * SIZE];
+            int[] cellOf = new int[SIZE * SIZE];
+            for (int[] leaf : leaves) {
+                if (!permute(leaf, 0, line, cellOf)) {
+                    return null;
+                }
+            }
+            return bestCellOf;
+        }
+
+        // Picks the row at depth among the rows left, false over budget
+        private boolean search(int depth, int usedRows) {
+            if (depth == SIZE) {
+                int[] leaf = new int[2 + 2 * SIZE];
+                leaf[0] = transpose;
+                System.arraycopy(rowOrder, 0, leaf, 1, SIZE);
+                int position = 0;
+                for (int i = 0; i < cellCount[SIZE]; ++i) {
+                    leaf[1 + 2 * SIZE] |= 1 << position;
+                    for (int mask = cells[SIZE][i]; mask != 0; mask &= mask - 1) {
+                        leaf[1 + SIZE + position++] = Integer.numberOfTrailingZeros(mask);
+                    }
+                }
+                leaves.add(leaf);
+                return true;
+            }
+            // The rest of the band of the last row, or the first row of a new band
+            int band = rowOrder[depth - 1] / BLOCK;
+            int candidates = 0;
+            for (int row = 0; row < SIZE; ++row) {
+                boolean bandUsed = (usedRows >> (row / BLOCK * BLOCK) & STACK_MASK) != 0;
+                if ((usedRows & 1 << row) == 0 && (depth % BLOCK != 0 ? row / BLOCK == band : !bandUsed)) {
+                    candidates |= 1 << row;
+                }
+            }
+            int[] patterns = new int[SIZE];
+            int smallest = Integer.MAX_VALUE;
+            for (int row = 0; row < SIZE; ++row) {
+                if ((candidates & 1 << row) != 0) {
+                    if (++work > SEARCH_BUDGET) {
+                        return false;
+                    }
+                    patterns[row] = pattern(rowEmpties[transpose][row], depth);
+                    smallest = Math.min(smallest, patterns[row]);
+                }
+            }
+            if (depth < bestDepth) {
+                if (smallest > best[depth]) {
+                    return true;
+                }
+                if (smallest < best[depth]) {
+                    best[depth] = smallest;
+                    bestDepth = depth + 1;
+                    leaves.clear();
+                }
+            } else {
+                best[depth] = smallest;
+                bestDepth = depth + 1;
+            }
+            for (int row = 0; row < SIZE; ++row) {
+                if ((candidates & 1 << row) != 0 && patterns[row] == smallest) {
+                    rowOrder[depth] = row;
+                    refine(rowEmpties[transpose][row], depth);
+                    if (!search(depth + 1, usedRows | 1 << row)) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        // Relabels a leaf with the columns of each cell in every order,
+        // keeping the smallest line; false over budget
+        private boolean permute(int[] leaf, int position, int[] line, int[] cellOf) {
+            if (position == SIZE) {
+                if (++work > SEARCH_BUDGET) {
+                    return false;
+                }
+                if (relabel(leaf, line, cellOf)) {
+                    bestLine = line.clone();
+                    bestCellOf = cellOf.clone();
+                }
+                return true;
+            }
+            int starts = leaf[1 + 2 * SIZE];
+            int end = position + 1;
+            while (end < SIZE && (starts & 1 << end) == 0) {
+                ++end;
+            }
+            for (int i = position; i < end; ++i) {
+                swap(leaf, 1 + SIZE + position, 1 + SIZE + i);
+                boolean withinBudget = permute(leaf, position + 1, line, cellOf);
+                swap(leaf, 1 + SIZE + position, 1 + SIZE + i);
+                if (!withinBudget) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static void swap(int[] a, int i, int j) {
+            int t = a[i];
+            a[i] = a[j];
+            a[j] = t;
+        }
+
+        // The line of a transform with empty as 0 and the digits numbered
+        // from 1 as they appear, false as soon as it is larger than bestLine
+        private boolean relabel(int[] leaf, int[] line, int[] cellOf) {
+            int[] labelOf = new int[SIZE];
+            int labels = 0;
+            boolean smaller = bestLine == null;
+            for (int i = 0; i < SIZE; ++i) {
+                int row = leaf[1 + i];
+                for (int j = 0; j < SIZE; ++j) {
+                    int col = leaf[1 + SIZE + j];
+                    int cell = leaf[0] == 0 ? row * SIZE + col : col * SIZE + row;
+                    int value = values[cell];
+                    if (value >= 0 && labelOf[value] == 0) {
+                        labelOf[value] = ++labels;
+                    }
+                    int k = i * SIZE + j;
+                    line[k] = value < 0 ? 0 : labelOf[value];
+                    cellOf[k] = cell;
+                    if (!smaller) {
+                        if (line[k] > bestLine[k]) {
+                            return false;
+                        }
+                        smaller = line[k] < bestLine[k];
+                    }
+                }
+            }
+            return smaller;
+        }
+
+        private static int stackCount(int empties, int stack) {
+            return Integer.bitCount(empties >> (stack * BLOCK) & STACK_MASK);
+        }
+
+        // The smallest pattern of a first row, its stacks from most givens
+        // down and the givens first in each, as bits from the first column down
+        private static int firstRowPattern(int empties) {
+            int a = stackCount(empties, 0);
+            int b = stackCount(empties, 1);
+            int c = stackCount(empties, 2);
+            int low = Math.min(a, Math.min(b, c));
+            int high = Math.max(a, Math.max(b, c));
+            int middle = a + b + c - low - high;
+            return ((1 << low) - 1) << (2 * BLOCK) | ((1 << middle) - 1) << BLOCK | ((1 << high) - 1);
+        }
+
+        // The smallest pattern of a row at depth: the givens first in each cell
+        private int pattern(int empties, int depth) {
+            int[] depthCells = cells[depth];
+            int pattern = 0;
+            for (int i = 0; i < cellCount[depth]; ++i) {
+                int mask = depthCells[i];
+                pattern = pattern << Integer.bitCount(mask) | ((1 << Integer.bitCount(mask & empties)) - 1);
+            }
+            return pattern;
+        }
+
+        // The cells of the next depth, each cell of depth split into its
+        // given columns then its empty columns in this row
+        private void refine(int empties, int depth) {
+            int[] from = cells[depth];
+            int[] to = cells[depth + 1];
+            int count = 0;
+            for (int i = 0; i < cellCount[depth]; ++i) {
+                int given = from[i] & ~empties;
+                int empty = from[i] & empties;
+                if (given != 0) {
+                    to[count++] = given;
+                }
+                if (empty != 0) {
+                    to[count++] = empty;
+                }
+            }
+            cellCount[depth + 1] = count;
+        }
+    }
+}
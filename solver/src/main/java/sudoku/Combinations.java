@@ -0,0 +1,91 @@
+package sudoku;
+
+// Walks every k-sized subset of a set of up to 64 elements exactly once,
+// in lexicographic order, without allocating.
+// The set and each subset are bitmasks, so a caller can pass in e.g. the
+// positions of a unit it is interested in and get back subsets of them.
+// One instance can be reset and reused for any number of walks:
+//
+//     combinations.reset(elements, k);
+//     while (combinations.next()) {
+//         long subset = combinations.subset();
+//         ...
+//     }
+public class Combinations {
+    // Bit of each element of the set, lowest first
+    private final long[] elementBits = new long[Long.SIZE];
+    // Indexes into elementBits of the elements in the current subset
+    private final int[] chosen = new int[Long.SIZE];
+    // prefixBits[i] is the union of the first i chosen elements
+    private final long[] prefixBits = new long[Long.SIZE + 1];
+    private int elementCount;
+    private int subSetSize;
+    private boolean started;
+    private boolean done;
+    // Subsets handed out over every walk, for SolveStats
+    private long count;
+
+    public static void main(String[] args) {
+        Combinations combinations = new Combinations();
+        combinations.reset(0b11111, 3);
+        while (combinations.next()) {
+            System.out.println(Long.toBinaryString(combinations.subset()));
+        }
+    }
+
+    public void reset(long elements, int subSetSize) {
+        elementCount = 0;
+        for (long bits = elements; bits != 0; bits &= bits - 1) {
+            elementBits[elementCount++] = bits & -bits;
+        }
+        this.subSetSize = subSetSize;
+        started = false;
+        done = subSetSize < 0 || subSetSize > elementCount;
+    }
+
+    // Moves to the next subset, returns false once every subset has been seen
+    public boolean next() {
+        if (done) {
+            return false;
+        }
+        int from;
+        if (!started) {
+            started = true;
+            from = 0;
+            prefixBits[0] = 0;
+            for (int i = 0; i < subSetSize; ++i) {
+                chosen[i] = i;
+            }
+        } else {
+            // Find the rightmost chosen element that can still move right
+            int i = subSetSize - 1;
+            while (i >= 0 && chosen[i] == elementCount - subSetSize + i) {
+                --i;
+            }
+            if (i < 0) {
+                done = true;
+                return false;
+            }
+            ++chosen[i];
+            for (int j = i + 1; j < subSetSize; ++j) {
+                chosen[j] = chosen[j - 1] + 1;
+            }
+            from = i;
+        }
+        for (int i = from; i < subSetSize; ++i) {
+            prefixBits[i + 1] = prefixBits[i] | elementBits[chosen[i]];
+        }
+        ++count;
+        return true;
+    }
+
+    // The number of subsets handed out since this instance was created
+    public long getCount() {
+        return count;
+    }
+
+    // The current subset, valid after next() returned true
+    public long subset() {
+        return prefixBits[subSetSize];
+    }
+}
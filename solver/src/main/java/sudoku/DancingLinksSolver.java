@@ -0,0 +1,244 @@
+package sudoku;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Knuth's Algorithm X with dancing links, an exact cover solver that is
+// independent of the techniques in SudokuSolver.
+// Each (cell, symbol) candidate is a row covering four constraint columns:
+// the cell has a value, and the symbol is in the row, the col and the block.
+// The links are kept in int arrays indexed by node rather than in node
+// objects: node 0 is the root, nodes 1..columnCount are the column headers
+// and the four nodes of each candidate follow.
+public class DancingLinksSolver {
+    private final int gridSize;
+    private final int blockSize;
+    private final char[] symbols;
+    private final int columnCount;
+
+    private final int[] left;
+    private final int[] right;
+    private final int[] up;
+    private final int[] down;
+    private final int[] column;
+    // The candidate of each node, cell * gridSize + symbol
+    private final int[] candidate;
+    // The number of nodes left in each column
+    private final int[] size;
+
+    private final char[] grid;
+    private final char[] solution;
+    // The node chosen at each depth of the search
+    private final int[] chosen;
+    private boolean conflictingValues = false;
+
+    public DancingLinksSolver(List<Character>[][] problemGrid) {
+        gridSize = problemGrid.length;
+        blockSize = (int) Math.sqrt(gridSize);
+        symbols = SudokuSolver.alphabet(gridSize);
+        int cellCount = gridSize * gridSize;
+        columnCount = cellCount * 4;
+        int nodeCount = 1 + columnCount + cellCount * gridSize * 4;
+        left = new int[nodeCount];
+        right = new int[nodeCount];
+        up = new int[nodeCount];
+        down = new int[nodeCount];
+        column = new int[nodeCount];
+        candidate = new int[nodeCount];
+        size = new int[columnCount + 1];
+        grid = new char[cellCount];
+        solution = new char[cellCount];
+        chosen = new int[cellCount];
+
+        for (int c = 0; c <= columnCount; ++c) {
+            left[c] = c == 0 ? columnCount : c - 1;
+            right[c] = c == columnCount ? 0 : c + 1;
+            up[c] = c;
+            down[c] = c;
+            column[c] = c;
+        }
+        int node = columnCount + 1;
+        for (int row = 0; row < gridSize; ++row) {
+            for (int col = 0; col < gridSize; ++col) {
+                int cell = row * gridSize + col;
+                int block = (row / blockSize) * blockSize + col / blockSize;
+                for (int symbol = 0; symbol < gridSize; ++symbol) {
+                    int first = node;
+                    addNode(node++, 1 + cell, cell * gridSize + symbol);
+                    addNode(node++, 1 + cellCount + row * gridSize + symbol, cell * gridSize + symbol);
+                    addNode(node++, 1 + cellCount * 2 + col * gridSize + symbol, cell * gridSize + symbol);
+                    addNode(node++, 1 + cellCount * 3 + block * gridSize + symbol, cell * gridSize + symbol);
+                    for (int i = 0; i < 4; ++i) {
+                        left[first + i] = first + (i + 3) % 4;
+                        right[first + i] = first + (i + 1) % 4;
+                    }
+                }
+            }
+        }
+
+        Arrays.fill(grid, '.');
+        for (int row = 0; row < gridSize; ++row) {
+            for (int col = 0; col < gridSize; ++col) {
+                if (!problemGrid[row][col].isEmpty()) {
+                    char val = problemGrid[row][col].get(0);
+                    grid[row * gridSize + col] = val;
+                    placeGiven(row * gridSize + col, indexOf(val));
+                }
+            }
+        }
+    }
+
+    private void addNode(int node, int col, int nodeCandidate) {
+        column[node] = col;
+        candidate[node] = nodeCandidate;
+        up[node] = up[col];
+        down[node] = col;
+        down[up[col]] = node;
+        up[col] = node;
+        ++size[col];
+    }
+
+    private int indexOf(char val) {
+        for (int i = 0; i < symbols.length; ++i) {
+            if (symbols[i] == val) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Invalid character " + val);
+    }
+
+    // Takes the candidate of a given value out of the matrix with its columns
+    private void placeGiven(int cell, int symbol) {
+        int first = columnCount + 1 + (cell * gridSize + symbol) * 4;
+        for (int i = 0; i < 4; ++i) {
+            if (!isColumnUncovered(column[first + i])) {
+                // Another given already fills this cell or puts this symbol in the unit
+                conflictingValues = true;
+                return;
+            }
+        }
+        for (int i = 0; i < 4; ++i) {
+            cover(column[first + i]);
+        }
+    }
+
+    private boolean isColumnUncovered(int col) {
+        return right[left[col]] == col;
+    }
+
+    public boolean hasConflictingValues() {
+        return conflictingValues;
+    }
+
+    // Finds a solution, returns false if there is none
+    public boolean solve() {
+        return countSolutions(1) == 1;
+    }
+
+    // Counts the solutions, stopping once limit of them are found.
+    // The last solution found is kept for getSolution().
+    public int countSolutions(int limit) {
+        if (conflictingValues || limit <= 0) {
+            return 0;
+        }
+        int found = 0;
+        int depth = 0;
+        boolean descend = true;
+        while (true) {
+            if (descend) {
+                if (right[0] == 0) {
+                    recordSolution(depth);
+                    ++found;
+                } else {
+                    int col = chooseColumn();
+                    if (size[col] > 0) {
+                        cover(col);
+                        chosen[depth] = down[col];
+                        selectRow(chosen[depth]);
+                        ++depth;
+                        continue;
+                    }
+                }
+            }
+            // Backtrack: move the deepest choice on to the next row of its column
+            if (depth == 0) {
+                break;
+            }
+            --depth;
+            int node = chosen[depth];
+            unselectRow(node);
+            int col = column[node];
+            node = down[node];
+            if (node != col && found < limit) {
+                chosen[depth] = node;
+                selectRow(node);
+                ++depth;
+                descend = true;
+            } else {
+                uncover(col);
+                descend = false;
+            }
+        }
+        return found;
+    }
+
+    // The solved grid as one line, row after row, with . for cells not solved
+    public String getSolution() {
+        return new String(solution);
+    }
+
+    private void recordSolution(int depth) {
+        System.arraycopy(grid, 0, solution, 0, grid.length);
+        for (int i = 0; i < depth; ++i) {
+            int c = candidate[chosen[i]];
+            solution[c / gridSize] = symbols[c % gridSize];
+        }
+    }
+
+    // The column with the fewest rows left
+    private int chooseColumn() {
+        int best = right[0];
+        for (int col = right[best]; col != 0 && size[best] > 1; col = right[col]) {
+            if (size[col] < size[best]) {
+                best = col;
+            }
+        }
+        return best;
+    }
+
+    private void selectRow(int node) {
+        for (int j = right[node]; j != node; j = right[j]) {
+            cover(column[j]);
+        }
+    }
+
+    private void unselectRow(int node) {
+        for (int j = left[node]; j != node; j = left[j]) {
+            uncover(column[j]);
+        }
+    }
+
+    private void cover(int col) {
+        right[left[col]] = right[col];
+        left[right[col]] = left[col];
+        for (int i = down[col]; i != col; i = down[i]) {
+            for (int j = right[i]; j != i; j = right[j]) {
+                down[up[j]] = down[j];
+                up[down[j]] = up[j];
+                --size[column[j]];
+            }
+        }
+    }
+
+    private void uncover(int col) {
+        for (int i = up[col]; i != col; i = up[i]) {
+            for (int j = left[i]; j != i; j = left[j]) {
+                ++size[column[j]];
+                down[up[j]] = j;
+                up[down[j]] = j;
+            }
+        }
+        right[left[col]] = col;
+        left[right[col]] = col;
+    }
+}
@@ -0,0 +1,85 @@
+package sudoku;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Lookup tables describing the layout of a grid, built once per grid size
+// and shared by every solver working on a grid of that size.
+// Cells are indexed row * gridSize + col.
+// Units are the rows, then the cols, then the blocks of the grid.
+public final class GridGeometry {
+    private static final ConcurrentMap<Integer, GridGeometry> geometries = new ConcurrentHashMap<>();
+
+    public final int gridSize;
+    public final int blockSize;
+    public final int cellCount;
+    // The cell indexes of the members of each unit
+    public final int[][] unitCells;
+    // The row, col and block unit of each cell
+    public final int[][] cellUnits;
+    // The position of each cell among the members of its row, col and block unit
+    public final int[][] cellPositions;
+    // Every other cell sharing a unit with the cell, each listed once
+    public final int[][] peers;
+    public final int[] cellRow;
+    public final int[] cellCol;
+
+    private GridGeometry(int gridSize) {
+        this.gridSize = gridSize;
+        blockSize = (int) Math.sqrt(gridSize);
+        if (blockSize * blockSize != gridSize) {
+            throw new IllegalArgumentException("grid size " + gridSize + " is not a square number");
+        }
+        cellCount = gridSize * gridSize;
+        unitCells = new int[gridSize * 3][gridSize];
+        cellUnits = new int[cellCount][3];
+        cellPositions = new int[cellCount][3];
+        peers = new int[cellCount][];
+        cellRow = new int[cellCount];
+        cellCol = new int[cellCount];
+
+        for (int row = 0; row < gridSize; ++row) {
+            for (int col = 0; col < gridSize; ++col) {
+                int cell = row * gridSize + col;
+                int block = (row / blockSize) * blockSize + col / blockSize;
+                int blockPos = (row % blockSize) * blockSize + col % blockSize;
+                cellRow[cell] = row;
+                cellCol[cell] = col;
+                unitCells[row][col] = cell;
+                unitCells[gridSize + col][row] = cell;
+                unitCells[gridSize * 2 + block][blockPos] = cell;
+                cellUnits[cell][0] = row;
+                cellUnits[cell][1] = gridSize + col;
+                cellUnits[cell][2] = gridSize * 2 + block;
+                cellPositions[cell][0] = col;
+                cellPositions[cell][1] = row;
+                cellPositions[cell][2] = blockPos;
+            }
+        }
+
+        boolean[] isPeer = new boolean[cellCount];
+        for (int cell = 0; cell < cellCount; ++cell) {
+            int peerCount = 0;
+            for (int unit : cellUnits[cell]) {
+                for (int other : unitCells[unit]) {
+                    if (other != cell && !isPeer[other]) {
+                        isPeer[other] = true;
+                        ++peerCount;
+                    }
+                }
+            }
+            peers[cell] = new int[peerCount];
+            int i = 0;
+            for (int other = 0; other < cellCount; ++other) {
+                if (isPeer[other]) {
+                    peers[cell][i++] = other;
+                    isPeer[other] = false;
+                }
+            }
+        }
+    }
+
+    public static GridGeometry forSize(int gridSize) {
+        return geometries.computeIfAbsent(gridSize, GridGeometry::new);
+    }
+}
@@ -0,0 +1,57 @@
+package sudoku;
+
+// Counts values into power of two buckets: bucket 0 holds 0, bucket i
+// holds values from 2^(i-1) to 2^i - 1. Cheap to record into and to merge,
+// and good to about a factor of two for percentiles.
+public class Histogram {
+    private final long[] buckets = new long[Long.SIZE + 1];
+    private long count;
+    private long sum;
+    private long max;
+
+    public void record(long value) {
+        ++buckets[Long.SIZE - Long.numberOfLeadingZeros(Math.max(value, 0))];
+        ++count;
+        sum += value;
+        max = Math.max(max, value);
+    }
+
+    public void merge(Histogram other) {
+        for (int i = 0; i < buckets.length; ++i) {
+            buckets[i] += other.buckets[i];
+        }
+        count += other.count;
+        sum += other.sum;
+        max = Math.max(max, other.max);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    // The upper bound of the bucket holding the given percentile
+    public long percentile(double percent) {
+        long rank = (long) Math.ceil(count * percent / 100.0);
+        long seen = 0;
+        for (int i = 0; i < buckets.length; ++i) {
+            seen += buckets[i];
+            if (seen >= rank && seen > 0) {
+                return i == 0 ? 0 : Math.min(max, (1L << i) - 1);
+            }
+        }
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("mean %.1f, p50 <= %d, p99 <= %d, max %d", getMean(), percentile(50), percentile(99), max);
+    }
+}
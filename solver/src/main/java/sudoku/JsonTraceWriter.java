@@ -0,0 +1,69 @@
+package sudoku;
+
+import java.io.PrintWriter;
+
+// Writes the events of a solve as JSON, one compact object per line,
+// for offline analysis, e.g.
+// {"event":"eliminated","row":0,"col":4,"symbols":"26","technique":"CLOSED_SET"}
+// Rows and cols count from 0. The caller owns and closes the writer.
+public class JsonTraceWriter implements SolveListener {
+    private final PrintWriter out;
+
+    public JsonTraceWriter(PrintWriter out) {
+        this.out = out;
+    }
+
+    @Override
+    public void iterationStarted(int iteration, SudokuSolver solver) {
+        out.println("{\"event\":\"iteration\",\"iteration\":" + iteration + "}");
+    }
+
+    @Override
+    public void techniqueFinished(Technique technique, boolean changed, SudokuSolver solver) {
+        out.println("{\"event\":\"technique\",\"technique\":\"" + technique + "\",\"changed\":" + changed + "}");
+    }
+
+    @Override
+    public void placed(int row, int col, char value, Technique technique) {
+        out.println("{\"event\":\"placed\",\"row\":" + row + ",\"col\":" + col + ",\"value\":\"" + value
+                + "\",\"technique\":" + (technique == null ? "null" : "\"" + technique + "\"") + "}");
+    }
+
+    @Override
+    public void eliminated(int row, int col, long symbols, Technique technique) {
+        out.println("{\"event\":\"eliminated\",\"row\":" + row + ",\"col\":" + col + ",\"symbols\":\""
+                + SudokuSolver.symbolsOf(symbols) + "\",\"technique\":\"" + technique + "\"}");
+    }
+
+    @Override
+    public void stuck(SudokuSolver solver) {
+        out.println("{\"event\":\"stuck\",\"grid\":\"" + solver.getSolution() + "\"}");
+    }
+
+    @Override
+    public void guessed(int row, int col, char value, int depth) {
+        out.println("{\"event\":\"guessed\",\"row\":" + row + ",\"col\":" + col + ",\"value\":\"" + value
+                + "\",\"depth\":" + depth + "}");
+    }
+
+    @Override
+    public void guessFailed(int row, int col, char value, int depth) {
+        out.println("{\"event\":\"guessFailed\",\"row\":" + row + ",\"col\":" + col + ",\"value\":\"" + value
+                + "\",\"depth\":" + depth + "}");
+    }
+
+    @Override
+    public void contradiction(String reason) {
+        out.println("{\"event\":\"contradiction\",\"reason\":\"" + reason.replace("\"", "\\\"") + "\"}");
+    }
+
+    @Override
+    public void unsolvable() {
+        out.println("{\"event\":\"unsolvable\"}");
+    }
+
+    @Override
+    public void solved(SudokuSolver solver) {
+        out.println("{\"event\":\"solved\",\"grid\":\"" + solver.getSolution() + "\"}");
+    }
+}
@@ -0,0 +1,164 @@
+package sudoku;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Reads a file of puzzles through a memory map, a puzzle at a time, and
+// loads each one into a solver straight from the mapped bytes, with no
+// String or char[] in between:
+//
+//     try (MappedPuzzleReader reader = new MappedPuzzleReader(path, false)) {
+//         while (reader.next()) {
+//             SudokuSolver solver = SolverPool.get(reader.gridSize());
+//             reader.loadInto(solver);
+//             ...
+//
+// The file is either text, one puzzle per line as BatchSolver reads it,
+// skipping blank lines and # comments, or packed puzzles as PackedPuzzles
+// writes them. It is mapped a window at a time, so it can be larger than
+// the 2 GB a single mapping can hold.
+public class MappedPuzzleReader implements Closeable {
+    private static final int WINDOW_SIZE = 1 << 26;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final boolean packed;
+    private final int windowSize;
+    // The mapped part of the file, from windowStart on
+    private MappedByteBuffer window;
+    private long windowStart = 0;
+    // Where the next puzzle is looked for in the window
+    private int position = 0;
+    // The current puzzle in the window, for text the line without its
+    // surrounding white space
+    private int start;
+    private int length;
+
+    public MappedPuzzleReader(Path path, boolean packed) throws IOException {
+        this(path, packed, WINDOW_SIZE);
+    }
+
+    // With windows of the given size, small ones for the tests to cross
+    // window boundaries on small files
+    MappedPuzzleReader(Path path, boolean packed, int windowSize) throws IOException {
+        this.packed = packed;
+        this.windowSize = windowSize;
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        fileSize = channel.size();
+        map(0);
+    }
+
+    // Moves to the next puzzle, false at the end of the file
+    public boolean next() throws IOException {
+        return packed ? nextRecord() : nextLine();
+    }
+
+    private boolean nextRecord() throws IOException {
+        if (position + PackedPuzzles.RECORD_SIZE > window.limit()) {
+            if (windowStart + position == fileSize) {
+                return false;
+            }
+            if (windowStart + position + PackedPuzzles.RECORD_SIZE > fileSize) {
+                throw new IOException("packed file ends in the middle of a puzzle");
+            }
+            map(windowStart + position);
+        }
+        start = position;
+        length = PackedPuzzles.RECORD_SIZE;
+        position += PackedPuzzles.RECORD_SIZE;
+        return true;
+    }
+
+    private boolean nextLine() throws IOException {
+        while (true) {
+            int limit = window.limit();
+            int end = position;
+            while (end < limit && window.get(end) != '\n') {
+                ++end;
+            }
+            if (end == limit && windowStart + limit < fileSize) {
+                // The line goes on past the window, map it again from the line on
+                if (position == 0) {
+                    throw new IOException("line longer than " + windowSize + " bytes at " + windowStart);
+                }
+                map(windowStart + position);
+                continue;
+            }
+            if (end == limit && position == limit) {
+                return false;
+            }
+            start = position;
+            position = Math.min(end + 1, limit);
+            while (start < end && window.get(start) <= ' ') {
+                ++start;
+            }
+            while (end > start && window.get(end - 1) <= ' ') {
+                --end;
+            }
+            length = end - start;
+            if (length > 0 && window.get(start) != '#') {
+                return true;
+            }
+        }
+    }
+
+    private void map(long offset) throws IOException {
+        windowStart = offset;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(windowSize, fileSize - offset));
+        position = 0;
+    }
+
+    // The grid size of the current puzzle, from the length of its line
+    public int gridSize() {
+        return packed ? PackedPuzzles.GRID_SIZE : SudokuSolver.gridSizeOf(length);
+    }
+
+    // Loads the current puzzle into a solver of its grid size
+    public void loadInto(SudokuSolver solver) {
+        if (packed) {
+            solver.loadPacked(window, start);
+        } else {
+            if (length != solver.getGridSize() * solver.getGridSize()) {
+                throw new IllegalArgumentException("line length is not "
+                        + solver.getGridSize() * solver.getGridSize() + ", is " + length);
+            }
+            solver.load(window, start);
+        }
+    }
+
+    // Copies the cells of the current puzzle as text, returns how many there are
+    public int read(char[] cells) {
+        if (packed) {
+            PackedPuzzles.unpack(window, start, cells);
+            return PackedPuzzles.CELL_COUNT;
+        }
+        int size = gridSize();
+        for (int cell = 0; cell < size * size; ++cell) {
+            cells[cell] = (char) (window.get(start + cell) & 0xff);
+        }
+        return size * size;
+    }
+
+    // The current puzzle as a line of text, as it is in the file for text
+    public String line() {
+        if (packed) {
+            char[] cells = new char[PackedPuzzles.CELL_COUNT];
+            return new String(cells, 0, read(cells));
+        }
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; ++i) {
+            bytes[i] = window.get(start + i);
+        }
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
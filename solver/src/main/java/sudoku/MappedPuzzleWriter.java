@@ -0,0 +1,95 @@
+package sudoku;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Writes puzzles or solutions to a file through a memory map, the match of
+// MappedPuzzleReader: text, one grid per line, or packed puzzles as
+// PackedPuzzles describes them. The file grows a window at a time and is
+// cut back to what was written on close, so close it even after an error.
+public class MappedPuzzleWriter implements Closeable {
+    private static final int WINDOW_SIZE = 1 << 26;
+
+    private final FileChannel channel;
+    private final boolean packed;
+    private final int windowSize;
+    // The mapped part of the file, from windowStart on, written up to its position
+    private MappedByteBuffer window;
+    private long windowStart = 0;
+
+    public MappedPuzzleWriter(Path path, boolean packed) throws IOException {
+        this(path, packed, WINDOW_SIZE);
+    }
+
+    // With windows of the given size, small ones for the tests to cross
+    // window boundaries on small files
+    MappedPuzzleWriter(Path path, boolean packed, int windowSize) throws IOException {
+        this.packed = packed;
+        this.windowSize = windowSize;
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        window = channel.map(FileChannel.MapMode.READ_WRITE, 0, windowSize);
+    }
+
+    // Writes the first length cells, as a line of text or packed
+    public void write(char[] cells, int length) throws IOException {
+        if (packed) {
+            reserve(PackedPuzzles.RECORD_SIZE);
+            PackedPuzzles.pack(cells, length, window, window.position());
+            window.position(window.position() + PackedPuzzles.RECORD_SIZE);
+        } else {
+            reserve(length + 1);
+            for (int i = 0; i < length; ++i) {
+                window.put((byte) cells[i]);
+            }
+            window.put((byte) '\n');
+        }
+    }
+
+    // Writes a line of text as it is, such as an invalid puzzle echoed back
+    public void write(CharSequence line) throws IOException {
+        if (packed) {
+            char[] cells = new char[line.length()];
+            for (int i = 0; i < cells.length; ++i) {
+                cells[i] = line.charAt(i);
+            }
+            write(cells, cells.length);
+            return;
+        }
+        reserve(line.length() + 1);
+        for (int i = 0; i < line.length(); ++i) {
+            window.put((byte) line.charAt(i));
+        }
+        window.put((byte) '\n');
+    }
+
+    // Maps the next window when the bytes would not fit in this one
+    private void reserve(int bytes) throws IOException {
+        if (window.remaining() < bytes) {
+            if (bytes > windowSize) {
+                throw new IOException("line longer than " + windowSize + " bytes");
+            }
+            windowStart += window.position();
+            window = channel.map(FileChannel.MapMode.READ_WRITE, windowStart, windowSize);
+        }
+    }
+
+    // The number of bytes written so far
+    public long size() {
+        return windowStart + window.position();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            window.force();
+            channel.truncate(size());
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package sudoku;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+// The packed puzzle format: a 9x9 puzzle in 41 bytes, half the size of a
+// line of text, with no separators so the puzzle n of a file is at n * 41.
+// Each cell is 4 bits, 0 for empty and 1 to 9 for the digits, in cell order
+// with the even cells in the low half of a byte and the odd ones in the high
+// half. The high half of the last byte is 0.
+//
+// Converts a file of puzzles, one per line, to the packed format and back:
+//
+// Usage: java PackedPuzzles [-unpack] input output
+public final class PackedPuzzles {
+    public static final int GRID_SIZE = 9;
+    public static final int CELL_COUNT = GRID_SIZE * GRID_SIZE;
+    public static final int RECORD_SIZE = (CELL_COUNT + 1) / 2;
+
+    private PackedPuzzles() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        boolean unpack = args.length == 3 && args[0].equals("-unpack");
+        if (args.length != (unpack ? 3 : 2)) {
+            System.err.println("Usage: java PackedPuzzles [-unpack] input output");
+            System.exit(2);
+        }
+        Path input = Paths.get(args[args.length - 2]);
+        Path output = Paths.get(args[args.length - 1]);
+        int converted = 0;
+        int skipped = 0;
+        char[] cells = new char[SudokuSolver.MAX_GRID_SIZE * SudokuSolver.MAX_GRID_SIZE];
+        try (MappedPuzzleReader reader = new MappedPuzzleReader(input, unpack);
+             MappedPuzzleWriter writer = new MappedPuzzleWriter(output, !unpack)) {
+            while (reader.next()) {
+                try {
+                    writer.write(cells, reader.read(cells));
+                    ++converted;
+                } catch (IllegalArgumentException e) {
+                    // Not a 9x9 puzzle, or one with characters the format has no value for
+                    ++skipped;
+                }
+            }
+        }
+        System.err.println(converted + " puzzles converted" + (skipped > 0 ? ", " + skipped + " skipped" : ""));
+    }
+
+    // The value of a cell of the puzzle at offset, 0 for empty
+    public static int valueAt(ByteBuffer buffer, int offset, int cell) {
+        int b = buffer.get(offset + (cell >> 1));
+        return (cell & 1) == 0 ? b & 0xf : (b >> 4) & 0xf;
+    }
+
+    // The value of a cell in the 81 character format, '.' or '0' for empty
+    static int valueOf(char c) {
+        if (c == '.' || c == '0') {
+            return 0;
+        }
+        if (c < '1' || c > '9') {
+            throw new IllegalArgumentException("Invalid character " + c + " for a packed puzzle");
+        }
+        return c - '0';
+    }
+
+    // Packs 81 cells at offset, validating all of them before writing any
+    static void pack(char[] cells, int length, ByteBuffer buffer, int offset) {
+        if (length != CELL_COUNT) {
+            throw new IllegalArgumentException("packed puzzles are 9x9, not " + length + " cells");
+        }
+        for (int cell = 0; cell < CELL_COUNT; ++cell) {
+            valueOf(cells[cell]);
+        }
+        for (int cell = 0; cell < CELL_COUNT; cell += 2) {
+            int high = cell + 1 < CELL_COUNT ? valueOf(cells[cell + 1]) : 0;
+            buffer.put(offset + (cell >> 1), (byte) (valueOf(cells[cell]) | high << 4));
+        }
+    }
+
+    // The 81 characters of the puzzle at offset, '.' for empty
+    static void unpack(ByteBuffer buffer, int offset, char[] cells) {
+        for (int cell = 0; cell < CELL_COUNT; ++cell) {
+            int value = valueAt(buffer, offset, cell);
+            cells[cell] = value == 0 ? '.' : value <= GRID_SIZE ? (char) ('0' + value) : '?';
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package sudoku;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+// Solves a stream of one-line puzzles like BatchSolver, on every core.
+// The input is cut into chunks that the workers of a fork-join pool
+// solve, each worker keeping its own BatchSolver for its counts and
+// latencies. Results are written in input order: at most
+// maxChunksInFlight chunks are queued or being solved at once, and the
+// oldest one is written out before another is read, so the chunks
+// waiting to be written form a bounded reordering buffer.
+//
+// Usage: java ParallelBatchSolver [-guess | -dlx | -unique | -parallel] [-stats] [-cache mb] [-threads n] [-chunk n] [puzzle file]
+//        java ParallelBatchSolver [-guess | -dlx | -unique | -parallel] -bench puzzle file
+// The -bench mode solves the file with 1, 2, 4 ... threads up to the
+// core count, discarding the output, and reports the speed-up of each.
+// With -cache the workers share one SolutionCache of that many megabytes.
+public class ParallelBatchSolver {
+    private static final int DEFAULT_CHUNK_SIZE = 256;
+    private static final int CHUNKS_IN_FLIGHT_PER_THREAD = 4;
+
+    private final int threads;
+    private final int chunkSize;
+    private final int maxChunksInFlight;
+    private final SolveMode mode;
+    private SolutionCache cache;
+
+    public ParallelBatchSolver(int threads, int chunkSize, SolveMode mode) {
+        this.threads = threads;
+        this.chunkSize = chunkSize;
+        this.mode = mode;
+        maxChunksInFlight = threads * CHUNKS_IN_FLIGHT_PER_THREAD;
+    }
+
+    // Has every worker solve through the cache, null to solve every puzzle
+    public void setCache(SolutionCache cache) {
+        this.cache = cache;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        int chunkSize = DEFAULT_CHUNK_SIZE;
+        boolean bench = false;
+        boolean printStats = false;
+        SolveMode mode = SolveMode.TECHNIQUES;
+        String fileName = null;
+        SolutionCache cache = null;
+        for (int i = 0; i < args.length; ++i) {
+            switch (args[i]) {
+                case "-cache":
+                    cache = new SolutionCache(Long.parseLong(args[++i]) << 20);
+                    break;
+                case "-threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "-chunk":
+                    chunkSize = Integer.parseInt(args[++i]);
+                    break;
+                case "-bench":
+                    bench = true;
+                    break;
+                case "-stats":
+                    printStats = true;
+                    break;
+                default:
+                    if (SolveMode.fromFlag(args[i]) != null) {
+                        mode = SolveMode.fromFlag(args[i]);
+                    } else {
+                        fileName = args[i];
+                    }
+            }
+        }
+        if (bench) {
+            if (fileName == null) {
+                throw new IllegalArgumentException("-bench needs a puzzle file");
+            }
+            benchmark(fileName, chunkSize, mode);
+            return;
+        }
+
+        BufferedReader reader = fileName != null
+                ? new BufferedReader(new FileReader(fileName))
+                : new BufferedReader(new InputStreamReader(System.in));
+        Writer writer = new BufferedWriter(new OutputStreamWriter(System.out));
+        long start = System.nanoTime();
+        ParallelBatchSolver solver = new ParallelBatchSolver(threads, chunkSize, mode);
+        solver.setCache(cache);
+        BatchSolver totals = solver.solveAll(reader, writer);
+        long elapsed = System.nanoTime() - start;
+        writer.flush();
+        reader.close();
+        System.err.println(threads + " threads: " + totals.report(elapsed));
+        if (cache != null) {
+            System.err.println(cache);
+        }
+        if (printStats) {
+            System.err.println(totals.getStats());
+        }
+    }
+
+    private static void benchmark(String fileName, int chunkSize, SolveMode mode) throws IOException {
+        int cores = Runtime.getRuntime().availableProcessors();
+        // Warm up the JIT before any timing
+        run(fileName, new ParallelBatchSolver(cores, chunkSize, mode));
+        double singleThreadRate = 0;
+        for (int threads = 1; ; threads = Math.min(threads * 2, cores)) {
+            long start = System.nanoTime();
+            BatchSolver totals = run(fileName, new ParallelBatchSolver(threads, chunkSize, mode));
+            long elapsed = System.nanoTime() - start;
+            double rate = totals.getPuzzleCount() / (elapsed / 1e9);
+            if (threads == 1) {
+                singleThreadRate = rate;
+            }
+            System.out.printf("%3d threads: %.1f puzzles/sec, speed-up %.2f%n", threads, rate, rate / singleThreadRate);
+            System.out.println("             " + totals.report(elapsed));
+            if (threads == cores) {
+                break;
+            }
+        }
+    }
+
+    private static BatchSolver run(String fileName, ParallelBatchSolver solver) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
+            return solver.solveAll(reader, Writer.nullWriter());
+        }
+    }
+
+    // Solves every puzzle read, writes the results in input order and
+    // returns the outcomes of all the workers added together
+    public BatchSolver solveAll(BufferedReader reader, Writer writer) throws IOException {
+        Queue<BatchSolver> workerBatches = new ConcurrentLinkedQueue<>();
+        ThreadLocal<BatchSolver> workerBatch = ThreadLocal.withInitial(() -> {
+            BatchSolver batch = new BatchSolver(mode);
+            batch.setCache(cache);
+            workerBatches.add(batch);
+            return batch;
+        });
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        Deque<ForkJoinTask<String[]>> inFlight = new ArrayDeque<>();
+        try {
+            List<String> chunk;
+            while (!(chunk = readChunk(reader)).isEmpty()) {
+                final String[] lines = chunk.toArray(new String[0]);
+                inFlight.addLast(pool.submit(() -> solveChunk(lines, workerBatch.get())));
+                if (inFlight.size() >= maxChunksInFlight) {
+                    writeChunk(inFlight.removeFirst().join(), writer);
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                writeChunk(inFlight.removeFirst().join(), writer);
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        BatchSolver totals = new BatchSolver(mode);
+        for (BatchSolver batch : workerBatches) {
+            totals.merge(batch);
+        }
+        return totals;
+    }
+
+    private List<String> readChunk(BufferedReader reader) throws IOException {
+        List<String> chunk = new ArrayList<>(chunkSize);
+        String line;
+        while (chunk.size() < chunkSize && (line = reader.readLine()) != null) {
+            line = line.trim();
+            if (!line.isEmpty() && !line.startsWith("#")) {
+                chunk.add(line);
+            }
+        }
+        return chunk;
+    }
+
+    private static String[] solveChunk(String[] lines, BatchSolver batch) {
+        String[] results = new String[lines.length];
+        for (int i = 0; i < lines.length; ++i) {
+            results[i] = batch.solveLine(lines[i]);
+        }
+        return results;
+    }
+
+    private static void writeChunk(String[] results, Writer writer) throws IOException {
+        for (String result : results) {
+            writer.write(result);
+            writer.write('\n');
+        }
+    }
+}
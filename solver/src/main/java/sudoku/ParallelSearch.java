@@ -0,0 +1,135 @@
+package sudoku;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Searches one hard puzzle on every core of a fork-join pool, for when the
+// latency of that puzzle matters more than the throughput of many. Where
+// the techniques get stuck, the top levels of the search tree are split
+// into tasks: each takes a copy of the state, guesses one possibility of
+// the branching cell and goes on from there, splitting again while it is
+// near the top and searching alone below. The first task to solve the
+// grid sets a flag that every other task checks before each guess, so
+// they give up as soon as they see it.
+//
+// A task splits down to a depth that grows with the parallelism of the
+// pool, about two levels more than it takes to give each worker a task,
+// so a worker that drew an easy branch finds another waiting. A task also
+// stops splitting while the pool has plenty of tasks queued.
+//
+//     SudokuSolver solver = new SudokuSolver(9);
+//     solver.load(line);
+//     boolean solved = ParallelSearch.common().solve(solver);
+public final class ParallelSearch {
+    private static final ParallelSearch COMMON = new ParallelSearch(ForkJoinPool.commonPool());
+    // The tasks a worker may have queued before the tasks stop splitting
+    private static final int MAX_SURPLUS_TASKS = 2;
+    private static final int EXTRA_SPLIT_DEPTH = 2;
+
+    private final ForkJoinPool pool;
+    private final int splitDepth;
+
+    public ParallelSearch(ForkJoinPool pool) {
+        this.pool = pool;
+        int parallelism = pool.getParallelism();
+        splitDepth = parallelism <= 1 ? 0
+                : 32 - Integer.numberOfLeadingZeros(parallelism - 1) + EXTRA_SPLIT_DEPTH;
+    }
+
+    // The search on the common pool
+    public static ParallelSearch common() {
+        return COMMON;
+    }
+
+    public int getSplitDepth() {
+        return splitDepth;
+    }
+
+    // Solves a solver that has a puzzle loaded: the techniques first, with
+    // guessing turned off, then the search over the pool if they get stuck.
+    // The solver ends up with the solution, or where the techniques stopped.
+    // Its stats only count the work of the techniques before the search.
+    // Guessing is switched back to what it was before, as the caller set it.
+    public boolean solve(SudokuSolver solver) {
+        boolean allowGuess = solver.isGuessingAllowed();
+        solver.setGuessingAllowed(false);
+        try {
+            if (solver.solve()) {
+                return true;
+            }
+            if (!solver.isSolvable()) {
+                return false;
+            }
+            SudokuSolver solution = pool.invoke(new Branch(solver, 0, new AtomicBoolean()));
+            if (solution == null) {
+                return false;
+            }
+            solver.copyState(solution);
+            return true;
+        } finally {
+            solver.setGuessingAllowed(allowGuess);
+        }
+    }
+
+    // The subtree below a state, returns the solver holding the solution
+    // or null if there is none there or another task found it first
+    private final class Branch extends RecursiveTask<SudokuSolver> {
+        private static final long serialVersionUID = 1L;
+
+        private final SudokuSolver state;
+        private final int depth;
+        private final AtomicBoolean solved;
+
+        Branch(SudokuSolver state, int depth, AtomicBoolean solved) {
+            this.state = state;
+            this.depth = depth;
+            this.solved = solved;
+        }
+
+        @Override
+        protected SudokuSolver compute() {
+            if (solved.get()) {
+                return null;
+            }
+            if (depth >= splitDepth || getSurplusQueuedTaskCount() > MAX_SURPLUS_TASKS) {
+                return state.searchUnless(solved) ? found(state) : null;
+            }
+            int cell = state.branchCell();
+            List<Branch> branches = new ArrayList<>();
+            for (long bits = state.possibilitiesOf(cell); bits != 0; bits &= bits - 1) {
+                SudokuSolver child = new SudokuSolver(state.getGridSize());
+                child.copyState(state);
+                if (!child.guess(cell, Long.numberOfTrailingZeros(bits))) {
+                    continue;
+                }
+                if (child.isSolved()) {
+                    return found(child);
+                }
+                branches.add(new Branch(child, depth + 1, solved));
+            }
+            if (branches.isEmpty()) {
+                return null;
+            }
+            // Hand all but the first branch to the pool and search that one here
+            for (int i = 1; i < branches.size(); ++i) {
+                branches.get(i).fork();
+            }
+            SudokuSolver solution = branches.get(0).compute();
+            for (int i = 1; i < branches.size(); ++i) {
+                SudokuSolver branchSolution = branches.get(i).join();
+                if (solution == null) {
+                    solution = branchSolution;
+                }
+            }
+            return solution;
+        }
+
+        private SudokuSolver found(SudokuSolver solution) {
+            solved.set(true);
+            return solution;
+        }
+    }
+}
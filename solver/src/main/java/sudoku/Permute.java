@@ -1,3 +1,5 @@
+package sudoku;
+
 public class Permute {
     public static void permute(int[] list, int fixedIndex) {
         print(list);
@@ -0,0 +1,154 @@
+package sudoku;
+
+import java.io.PrintStream;
+
+// Prints a running commentary of the solve, with the possibilities of
+// every cell after each change, as SudokuSolver always used to.
+public class PrintingSolveListener implements SolveListener {
+    private static final int ASCII_OFFSET_A = 65;
+
+    private final PrintStream out;
+
+    public PrintingSolveListener(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void iterationStarted(int iteration, SudokuSolver solver) {
+        out.println("Iteration:" + iteration);
+        printGridPossibilities(solver);
+    }
+
+    @Override
+    public void techniqueStarted(Technique technique, SudokuSolver solver) {
+        switch (technique) {
+            case SINGLE:
+                out.println("scanForPossibilitiesOfLengthOne");
+                break;
+            case HIDDEN_SINGLE:
+                out.println("findHiddenSingle");
+                break;
+            case BLOCK_RESTRICTION:
+                out.println("findBlockLimit");
+                break;
+            case HIDDEN_SET:
+                out.println("findHiddenSet");
+                break;
+            case CLOSED_SET:
+                out.println("findClosedSet");
+                break;
+            case NX_WING:
+                out.println("findClosedMatrix");
+                break;
+            case XY_WING:
+                out.println("findXYWing");
+                break;
+            case XYZ_WING:
+                out.println("findXYZWing");
+                break;
+            case SIMPLE_COLORING:
+                out.println("findSimpleColoring");
+                break;
+            case X_CHAIN:
+                out.println("findXChain");
+                break;
+            default:
+                out.println(technique);
+        }
+    }
+
+    @Override
+    public void techniqueFinished(Technique technique, boolean changed, SudokuSolver solver) {
+        if (changed) {
+            out.println("changed");
+            printGridPossibilities(solver);
+        }
+    }
+
+    @Override
+    public void nothingChanged(SudokuSolver solver) {
+        out.println("nothing changed in this iteration");
+    }
+
+    @Override
+    public void placed(int row, int col, char value, Technique technique) {
+        out.println("grid value " + value + " set at: " + cellName(row, col));
+    }
+
+    @Override
+    public void eliminated(int row, int col, long symbols, Technique technique) {
+        out.println("grid changed at: " + cellName(row, col));
+    }
+
+    @Override
+    public void stuck(SudokuSolver solver) {
+        out.println("GRID NOT SOLVED");
+        printGridPossibilities(solver);
+    }
+
+    @Override
+    public void searchStarted() {
+        out.println("ENTERING GUESSWORK");
+    }
+
+    @Override
+    public void guessed(int row, int col, char value, int depth) {
+        out.println("guess " + value + " at: " + cellName(row, col));
+    }
+
+    @Override
+    public void guessFailed(int row, int col, char value, int depth) {
+        out.println("guess failed");
+    }
+
+    @Override
+    public void contradiction(String reason) {
+        out.println(reason);
+    }
+
+    @Override
+    public void unsolvable() {
+        out.println("GRID became unsolvable");
+    }
+
+    @Override
+    public void solved(SudokuSolver solver) {
+        out.println("===SOLUTION===");
+        int gridSize = solver.getGridSize();
+        for (int i = 0; i < gridSize; ++i) {
+            for (int j = 0; j < gridSize; ++j) {
+                out.print("[" + solver.getValue(i, j) + "]");
+            }
+            out.println();
+        }
+    }
+
+    private static String cellName(int row, int col) {
+        return "" + rowName(row) + (col + 1);
+    }
+
+    // A to Z, then a to j for the rows of a 36x36 grid
+    private static char rowName(int row) {
+        return row < 26 ? (char) (row + ASCII_OFFSET_A) : (char) (row - 26 + 'a');
+    }
+
+    private void printGridPossibilities(SudokuSolver solver) {
+        int gridSize = solver.getGridSize();
+        out.print(" :");
+        for (int j = 1; j <= gridSize; ++j) {
+            out.printf("%10s", j);
+        }
+        out.println();
+        for (int i = 0; i < gridSize; ++i) {
+            out.print(rowName(i) + ":");
+            for (int j = 0; j < gridSize; ++j) {
+                if (solver.isSolved(i, j)) {
+                    out.printf("%10s", "[" + solver.getValue(i, j) + "]");
+                } else {
+                    out.printf("%10s", solver.getPossibilities(i, j));
+                }
+            }
+            out.println();
+        }
+    }
+}
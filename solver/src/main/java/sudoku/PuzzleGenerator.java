@@ -0,0 +1,203 @@
+package sudoku;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+// Makes puzzles with exactly one solution and no clue to spare:
+// solves a grid seeded with random blocks into a random full grid, then
+// tries to remove each clue in a random order, putting it back when the
+// puzzle stops being unique. Optionally grades each puzzle with the
+// hardest technique SudokuSolver needs to solve it.
+// Puzzles are generated on every core and written one per line, in the
+// order of their seeds, like ParallelBatchSolver writes its results.
+//
+// Usage: java PuzzleGenerator [-count n] [-threads n] [-seed n] [-size n] [-difficulty] [output file]
+// Writes to stdout without an output file and reports the rate on stderr.
+// -size picks the grid, 9 by default, or 4, 16, 25 or 36. From 25x25 up a
+// puzzle can take many minutes, proving the last clues are needed takes long searches.
+public class PuzzleGenerator {
+    private static final char EMPTY = '.';
+    private static final int CHUNKS_IN_FLIGHT_PER_THREAD = 4;
+
+    private final SplittableRandom random;
+    private final GridGeometry geometry;
+    private final char[] symbols;
+    // Reused by every uniqueness check, it only needs to tell 1 from 2
+    private final SolutionCount solutionCount = new SolutionCount(2);
+
+    public PuzzleGenerator(SplittableRandom random) {
+        this(random, 9);
+    }
+
+    public PuzzleGenerator(SplittableRandom random, int gridSize) {
+        if (!SudokuSolver.isGridSize(gridSize)) {
+            throw new IllegalArgumentException("no grid of size " + gridSize);
+        }
+        this.random = random;
+        geometry = GridGeometry.forSize(gridSize);
+        symbols = SudokuSolver.alphabet(gridSize);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int count = 1000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = System.nanoTime();
+        int gridSize = 9;
+        boolean difficulty = false;
+        String fileName = null;
+        for (int i = 0; i < args.length; ++i) {
+            switch (args[i]) {
+                case "-count":
+                    count = Integer.parseInt(args[++i]);
+                    break;
+                case "-threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "-seed":
+                    seed = Long.parseLong(args[++i]);
+                    break;
+                case "-size":
+                    gridSize = Integer.parseInt(args[++i]);
+                    break;
+                case "-difficulty":
+                    difficulty = true;
+                    break;
+                default:
+                    fileName = args[i];
+            }
+        }
+
+        Writer writer = new BufferedWriter(fileName != null
+                ? new FileWriter(fileName)
+                : new OutputStreamWriter(System.out));
+        long start = System.nanoTime();
+        long clues = generateAll(count, threads, seed, gridSize, difficulty, writer);
+        long elapsed = System.nanoTime() - start;
+        writer.close();
+        System.err.printf("%d puzzles in %.3f s, %.1f puzzles/sec, %.1f clues on average, %d threads%n",
+                count, elapsed / 1e9, count / (elapsed / 1e9), (double) clues / count, threads);
+    }
+
+    // Generates count puzzles on a pool of threads and writes them in seed order,
+    // returns the total number of clues written
+    public static long generateAll(int count, int threads, long seed, int gridSize, boolean difficulty,
+            Writer writer) throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        Deque<ForkJoinTask<String>> inFlight = new ArrayDeque<>();
+        long clues = 0;
+        try {
+            for (int i = 0; i < count; ++i) {
+                // Every puzzle has its own seed so the output does not depend on the threads
+                final SplittableRandom puzzleRandom = new SplittableRandom(seed + i * 0x9E3779B97F4A7C15L);
+                inFlight.addLast(pool.submit(() -> {
+                    String puzzle = new PuzzleGenerator(puzzleRandom, gridSize).generatePuzzle();
+                    return difficulty ? puzzle + "\t" + grade(puzzle) : puzzle;
+                }));
+                if (inFlight.size() >= threads * CHUNKS_IN_FLIGHT_PER_THREAD) {
+                    clues += write(inFlight.removeFirst().join(), writer);
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                clues += write(inFlight.removeFirst().join(), writer);
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return clues;
+    }
+
+    private static int write(String line, Writer writer) throws IOException {
+        writer.write(line);
+        writer.write('\n');
+        int clues = 0;
+        for (int i = 0; i < line.length() && line.charAt(i) != '\t'; ++i) {
+            if (line.charAt(i) != EMPTY) {
+                ++clues;
+            }
+        }
+        return clues;
+    }
+
+    // A random full grid as one line
+    public String generateSolution() {
+        // The blocks on the diagonal share no unit, so from 9x9 up any
+        // filling of them can be completed; the search completes it. On
+        // 4x4 some fillings cannot, those are drawn again.
+        char[] cells = new char[geometry.cellCount];
+        SudokuSolver solver = SolverPool.get(geometry.gridSize);
+        solver.setGuessingAllowed(true);
+        do {
+            Arrays.fill(cells, EMPTY);
+            for (int i = 0; i < geometry.blockSize; ++i) {
+                int[] block = geometry.unitCells[geometry.gridSize * 2 + i * geometry.blockSize + i];
+                char[] shuffled = symbols.clone();
+                shuffle(shuffled);
+                for (int j = 0; j < block.length; ++j) {
+                    cells[block[j]] = shuffled[j];
+                }
+            }
+            solver.load(cells);
+        } while (!solver.solve());
+        return solver.getSolution();
+    }
+
+    // A puzzle with one solution from which no clue can be removed
+    public String generatePuzzle() {
+        char[] cells = generateSolution().toCharArray();
+        int[] order = new int[cells.length];
+        for (int i = 0; i < order.length; ++i) {
+            order[i] = i;
+        }
+        shuffle(order);
+        for (int cell : order) {
+            char clue = cells[cell];
+            cells[cell] = EMPTY;
+            if (!isUnique(cells)) {
+                cells[cell] = clue;
+            }
+        }
+        return new String(cells);
+    }
+
+    private boolean isUnique(char[] cells) {
+        SudokuSolver solver = SolverPool.get(geometry.gridSize);
+        solver.load(cells);
+        return solver.countSolutions(solutionCount).getCount() == 1;
+    }
+
+    // The hardest technique SudokuSolver needs to solve the puzzle
+    public static Technique grade(String puzzle) {
+        SudokuSolver solver = SolverPool.get(SudokuSolver.gridSizeOf(puzzle.length()));
+        solver.setGuessingAllowed(true);
+        solver.load(puzzle);
+        solver.solve();
+        return solver.getHardestTechnique() != null ? solver.getHardestTechnique() : Technique.SINGLE;
+    }
+
+    private void shuffle(char[] values) {
+        for (int i = values.length - 1; i > 0; --i) {
+            int j = random.nextInt(i + 1);
+            char tmp = values[i];
+            values[i] = values[j];
+            values[j] = tmp;
+        }
+    }
+
+    private void shuffle(int[] values) {
+        for (int i = values.length - 1; i > 0; --i) {
+            int j = random.nextInt(i + 1);
+            int tmp = values[i];
+            values[i] = values[j];
+            values[j] = tmp;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package sudoku;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+// Remembers the solutions of the puzzles it solves by their CanonicalForm,
+// so a puzzle seen before, or one that is the same puzzle with its digits
+// relabeled, its rows and columns shuffled within their bands and stacks
+// or the grid transposed, is answered without a solve:
+//
+//     SolutionCache cache = new SolutionCache(64 << 20);
+//     SolveResult result = cache.solve(line, SolveMode.GUESS);
+//
+// Only solved puzzles are kept, in canonical form, with the hardest
+// technique their solve needed and whether it was a UNIQUE solve. A
+// TECHNIQUES solve is answered only by an entry that needed no guessing,
+// and a UNIQUE solve only by an entry from a UNIQUE solve. A DANCING_LINKS
+// solve skips the cache. The least recently used entries go once the
+// entries take more than the memory budget, as far as it can be estimated.
+// A hit returns no SolveStats, as no solve ran.
+//
+// Safe to share between threads; the canonical forms are worked out and the
+// puzzles solved outside the lock.
+public class SolutionCache {
+    // The bytes an entry holds beside the characters of its key and
+    // solution: the two Strings, the entry and the map's node and slot
+    private static final int ENTRY_OVERHEAD = 160;
+
+    private static final class Entry {
+        final String solution;
+        final Technique hardestTechnique;
+        final boolean unique;
+        final int bytes;
+
+        Entry(String key, String solution, Technique hardestTechnique, boolean unique) {
+            this.solution = solution;
+            this.hardestTechnique = hardestTechnique;
+            this.unique = unique;
+            bytes = ENTRY_OVERHEAD + key.length() + solution.length();
+        }
+
+        boolean answers(SolveMode mode) {
+            switch (mode) {
+                case TECHNIQUES:
+                    return hardestTechnique != Technique.GUESSING;
+                case UNIQUE:
+                    return unique;
+                default:
+                    return true;
+            }
+        }
+    }
+
+    private final long maxBytes;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes = 0;
+    private long hits = 0;
+    private long misses = 0;
+    // Lookups that only had the relabeled form, the search being over budget
+    private long notMinimal = 0;
+    private long canonicalNanos = 0;
+
+    public SolutionCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public SolveResult solve(String puzzle, SolveMode mode) {
+        if (mode == SolveMode.DANCING_LINKS) {
+            return Sudoku.solve(puzzle, mode);
+        }
+        long start = System.nanoTime();
+        CanonicalForm form = CanonicalForm.of(puzzle);
+        if (form == null) {
+            // Not a puzzle line or clashing givens, Sudoku.solve says which
+            return Sudoku.solve(puzzle, mode);
+        }
+        Entry entry = lookup(form, mode, System.nanoTime() - start);
+        if (entry != null) {
+            return new SolveResult(SolveResult.Status.SOLVED, form.fromCanonical(entry.solution),
+                    entry.hardestTechnique, null, System.nanoTime() - start, null);
+        }
+        SolveResult result = Sudoku.solve(puzzle, mode);
+        if (result.isSolved()) {
+            String key = form.key();
+            put(key, new Entry(key, form.toCanonical(result.getSolution()), result.getHardestTechnique(),
+                    mode == SolveMode.UNIQUE));
+        }
+        return new SolveResult(result.getStatus(), result.getGrid(), result.getHardestTechnique(), result.getStats(),
+                System.nanoTime() - start, result.getError());
+    }
+
+    private synchronized Entry lookup(CanonicalForm form, SolveMode mode, long nanos) {
+        canonicalNanos += nanos;
+        if (!form.isMinimal()) {
+            ++notMinimal;
+        }
+        Entry entry = entries.get(form.key());
+        if (entry != null && entry.answers(mode)) {
+            ++hits;
+            return entry;
+        }
+        ++misses;
+        return null;
+    }
+
+    private synchronized void put(String key, Entry entry) {
+        Entry old = entries.put(key, entry);
+        if (old != null) {
+            bytes -= old.bytes;
+            if (old.unique && !entry.unique) {
+                // Keep knowing the solution is unique
+                entries.put(key, old);
+                entry = old;
+            }
+        }
+        bytes += entry.bytes;
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            bytes -= eldest.next().bytes;
+            eldest.remove();
+        }
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized double getHitRate() {
+        return hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+    }
+
+    // The time spent finding canonical forms over all lookups
+    public synchronized long getCanonicalNanos() {
+        return canonicalNanos;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    @Override
+    public synchronized String toString() {
+        long lookups = hits + misses;
+        return String.format("cache: %d hits, %d misses, hit rate %.1f%%, canonical form %.2f us"
+                        + ", %d not minimal, %d entries, %d KB of %d KB",
+                hits, misses, 100 * getHitRate(), lookups == 0 ? 0 : canonicalNanos / 1e3 / lookups,
+                notMinimal, entries.size(), bytes >> 10, maxBytes >> 10);
+    }
+}
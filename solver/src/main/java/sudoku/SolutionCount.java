@@ -0,0 +1,93 @@
+package sudoku;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+// What SudokuSolver.countSolutions found: how many solutions, up to the
+// limit it was asked for, and each of them as a one-line grid.
+// The solutions are kept in one char array that grows as needed, so a
+// SolutionCount passed to countSolutions puzzle after puzzle allocates
+// nothing once it has held limit solutions.
+public class SolutionCount {
+    private final int limit;
+    private int cellCount;
+    private int count;
+    // The solutions one after the other, cellCount characters each
+    private char[] solutions = new char[0];
+
+    public SolutionCount(int limit) {
+        this.limit = limit;
+    }
+
+    // Forgets the solutions, for a count on a grid of cellCount cells
+    void reset(int cellCount) {
+        this.cellCount = cellCount;
+        count = 0;
+    }
+
+    void addSolution(char[] grid) {
+        int offset = count * cellCount;
+        if (offset + cellCount > solutions.length) {
+            solutions = Arrays.copyOf(solutions, Math.max(offset + cellCount, solutions.length * 2));
+        }
+        System.arraycopy(grid, 0, solutions, offset, cellCount);
+        ++count;
+    }
+
+    // The number of solutions found, never more than the limit
+    public int getCount() {
+        return count;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    // True when the count stopped at the limit, so there may be more solutions
+    public boolean reachedLimit() {
+        return count >= limit;
+    }
+
+    public boolean isUnique() {
+        return count == 1 && limit > 1;
+    }
+
+    // Copies a solution into the caller's array, row after row, for
+    // callers that do not want a new String every time
+    public void getSolution(int index, char[] solution) {
+        checkIndex(index);
+        System.arraycopy(solutions, index * cellCount, solution, 0, cellCount);
+    }
+
+    public String getSolution(int index) {
+        checkIndex(index);
+        return new String(solutions, index * cellCount, cellCount);
+    }
+
+    // The solutions as Strings, each one built when it is asked for
+    public List<String> getSolutions() {
+        return new AbstractList<String>() {
+            @Override
+            public String get(int index) {
+                return getSolution(index);
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        };
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("solution " + index + " of " + count);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return (reachedLimit() ? "at least " : "") + count + " solutions";
+    }
+}
@@ -0,0 +1,58 @@
+package sudoku;
+
+// Receives the events of a SudokuSolver solve as they happen.
+// Every method does nothing by default, so a listener only overrides
+// the events it wants. Rows and cols count from 0.
+public interface SolveListener {
+    // Listens to nothing; a solver given this one does not build any events
+    SolveListener NONE = new SolveListener() {
+    };
+
+    // A round of the techniques, simplest first, is starting
+    default void iterationStarted(int iteration, SudokuSolver solver) {
+    }
+
+    default void techniqueStarted(Technique technique, SudokuSolver solver) {
+    }
+
+    default void techniqueFinished(Technique technique, boolean changed, SudokuSolver solver) {
+    }
+
+    // No technique could change the grid any more
+    default void nothingChanged(SudokuSolver solver) {
+    }
+
+    // A value was put in a cell, by the given technique, or null for a given value
+    default void placed(int row, int col, char value, Technique technique) {
+    }
+
+    // A technique removed some possibilities from a cell,
+    // SudokuSolver.symbolsOf turns the bitmask into the symbols
+    default void eliminated(int row, int col, long symbols, Technique technique) {
+    }
+
+    // The techniques stopped with the grid not solved
+    default void stuck(SudokuSolver solver) {
+    }
+
+    default void searchStarted() {
+    }
+
+    // The search is trying a value in a cell, the placement follows
+    default void guessed(int row, int col, char value, int depth) {
+    }
+
+    default void guessFailed(int row, int col, char value, int depth) {
+    }
+
+    // The grid has no solution from here
+    default void contradiction(String reason) {
+    }
+
+    // The techniques left the grid without a solution, before any guess
+    default void unsolvable() {
+    }
+
+    default void solved(SudokuSolver solver) {
+    }
+}
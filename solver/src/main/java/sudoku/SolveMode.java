@@ -0,0 +1,32 @@
+package sudoku;
+
+// How a puzzle gets solved
+public enum SolveMode {
+    // The techniques alone, stopping where they get stuck
+    TECHNIQUES,
+    // The techniques, then a search where they get stuck
+    GUESS,
+    // DancingLinksSolver instead of the techniques
+    DANCING_LINKS,
+    // The techniques and search, only solved if there is exactly one solution
+    UNIQUE,
+    // The techniques, then a search split over the cores by ParallelSearch,
+    // for the latency of one hard puzzle
+    PARALLEL;
+
+    // The mode selected by a command line flag, or null if it is not a mode flag
+    public static SolveMode fromFlag(String flag) {
+        switch (flag) {
+            case "-guess":
+                return GUESS;
+            case "-dlx":
+                return DANCING_LINKS;
+            case "-unique":
+                return UNIQUE;
+            case "-parallel":
+                return PARALLEL;
+            default:
+                return null;
+        }
+    }
+}
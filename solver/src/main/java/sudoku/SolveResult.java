@@ -0,0 +1,78 @@
+package sudoku;
+
+// The outcome of solving one puzzle through Sudoku.solve
+public class SolveResult {
+    public enum Status {
+        SOLVED,
+        // The techniques got stuck and guessing was off
+        UNSOLVED,
+        NO_SOLUTION,
+        // Only told apart from SOLVED in SolveMode.UNIQUE
+        MULTIPLE_SOLUTIONS,
+        // A line that is no puzzle, or givens that clash
+        INVALID
+    }
+
+    private final Status status;
+    private final String grid;
+    private final Technique hardestTechnique;
+    private final SolveStats stats;
+    private final long nanos;
+    private final String error;
+
+    SolveResult(Status status, String grid, Technique hardestTechnique, SolveStats stats, long nanos,
+            String error) {
+        this.status = status;
+        this.grid = grid;
+        this.hardestTechnique = hardestTechnique;
+        this.stats = stats;
+        this.nanos = nanos;
+        this.error = error;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isSolved() {
+        return status == Status.SOLVED;
+    }
+
+    // The solution as one line, null if the puzzle was not solved
+    public String getSolution() {
+        return status == Status.SOLVED ? grid : null;
+    }
+
+    // The solution, or as far as the techniques got with . for the cells
+    // not solved, or the puzzle line as it came for the other outcomes
+    public String getGrid() {
+        return grid;
+    }
+
+    // The hardest technique the solve needed, null if the givens alone
+    // solved the grid or the techniques did not run
+    public Technique getHardestTechnique() {
+        return hardestTechnique;
+    }
+
+    // The counters of the solve, null if SolveStats.ENABLED is off or the
+    // techniques did not run
+    public SolveStats getStats() {
+        return stats;
+    }
+
+    // How long the solve took, reading the puzzle included
+    public long getNanos() {
+        return nanos;
+    }
+
+    // What was wrong with an INVALID puzzle, null otherwise
+    public String getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return status + " " + grid;
+    }
+}
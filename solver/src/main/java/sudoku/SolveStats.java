@@ -0,0 +1,90 @@
+package sudoku;
+
+import java.util.Arrays;
+
+// Counters and timers of one SudokuSolver solve: how often each technique
+// ran, how many possibilities it removed (placements for SINGLE) and how
+// long it took, how many subsets the combinatorial techniques walked,
+// and how deep and how much the search guessed and backtracked.
+// Collection costs a few counter bumps and a nanoTime per technique run.
+// Run with -Dsudoku.metrics=false to have the JIT drop it altogether.
+public class SolveStats {
+    public static final boolean ENABLED = !"false".equals(System.getProperty("sudoku.metrics"));
+
+    private static final int TECHNIQUES = Technique.values().length;
+
+    final long[] runs = new long[TECHNIQUES];
+    final long[] eliminations = new long[TECHNIQUES];
+    final long[] nanos = new long[TECHNIQUES];
+    long combinations;
+    long guesses;
+    long backtracks;
+    int maxGuessDepth;
+
+    public long getRuns(Technique technique) {
+        return runs[technique.ordinal()];
+    }
+
+    public long getEliminations(Technique technique) {
+        return eliminations[technique.ordinal()];
+    }
+
+    public long getNanos(Technique technique) {
+        return nanos[technique.ordinal()];
+    }
+
+    // The subsets findClosedSet walked through and the partial wings findNXWing tried
+    public long getCombinations() {
+        return combinations;
+    }
+
+    public long getGuesses() {
+        return guesses;
+    }
+
+    public long getBacktracks() {
+        return backtracks;
+    }
+
+    // How many guesses deep the search went, 0 if it did not guess
+    public int getMaxGuessDepth() {
+        return maxGuessDepth;
+    }
+
+    // A snapshot of the counters, which go on changing with the solver's next solve
+    public SolveStats copy() {
+        SolveStats copy = new SolveStats();
+        System.arraycopy(runs, 0, copy.runs, 0, TECHNIQUES);
+        System.arraycopy(eliminations, 0, copy.eliminations, 0, TECHNIQUES);
+        System.arraycopy(nanos, 0, copy.nanos, 0, TECHNIQUES);
+        copy.combinations = combinations;
+        copy.guesses = guesses;
+        copy.backtracks = backtracks;
+        copy.maxGuessDepth = maxGuessDepth;
+        return copy;
+    }
+
+    public void reset() {
+        Arrays.fill(runs, 0);
+        Arrays.fill(eliminations, 0);
+        Arrays.fill(nanos, 0);
+        combinations = 0;
+        guesses = 0;
+        backtracks = 0;
+        maxGuessDepth = 0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Technique technique : Technique.values()) {
+            if (technique != Technique.GUESSING) {
+                sb.append(String.format("%-18s runs %6d  eliminations %6d  %10.1f us%n", technique,
+                        getRuns(technique), getEliminations(technique), getNanos(technique) / 1e3));
+            }
+        }
+        sb.append(String.format("combinations %d, guesses %d, backtracks %d, max guess depth %d",
+                combinations, guesses, backtracks, maxGuessDepth));
+        return sb.toString();
+    }
+}
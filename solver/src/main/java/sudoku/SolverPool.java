@@ -0,0 +1,36 @@
+package sudoku;
+
+// Hands out one SudokuSolver per thread and grid size, so a thread going
+// through puzzle after puzzle reuses the same solver and all its arrays
+// and does not allocate once it has warmed up:
+//
+//     SudokuSolver solver = SolverPool.get(SudokuSolver.gridSizeOf(line.length()));
+//     solver.setGuessingAllowed(true);
+//     solver.load(line);
+//     solver.solve();
+//
+// The solvers hear no events. Each keeps the settings of its last user,
+// so set the ones that matter before every solve. A solver is only yours
+// until the thread next gets one of that size, so do not hold on to it
+// across code that may solve too, such as a fork-join join.
+public final class SolverPool {
+    private static final ThreadLocal<SudokuSolver[]> solvers =
+            ThreadLocal.withInitial(() -> new SudokuSolver[SudokuSolver.MAX_GRID_SIZE + 1]);
+
+    private SolverPool() {
+    }
+
+    // The solver of the calling thread for grids of the given size
+    public static SudokuSolver get(int gridSize) {
+        if (gridSize < 1 || gridSize > SudokuSolver.MAX_GRID_SIZE) {
+            throw new IllegalArgumentException("no grid of size " + gridSize);
+        }
+        SudokuSolver[] threadSolvers = solvers.get();
+        SudokuSolver solver = threadSolvers[gridSize];
+        if (solver == null) {
+            solver = new SudokuSolver(gridSize);
+            threadSolvers[gridSize] = solver;
+        }
+        return solver;
+    }
+}
@@ -0,0 +1,227 @@
+package sudoku;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Keeps a solver JVM running, warmed up, behind a small HTTP service.
+// POST puzzles to /solve, one per line, and get back one JSON line per
+// puzzle in the same order, written as each one is solved:
+//
+//     curl --data-binary @puzzles.txt 'http://localhost:8080/solve?mode=guess'
+//     {"status":"SOLVED","grid":"534678912...","technique":"HIDDEN_SINGLE","micros":41}
+//
+// mode is techniques, guess (the default), unique, dlx or parallel, as for BatchSolver.
+// A request is solved on one of a fixed number of threads, with a bounded
+// queue of requests in front of them. When the queue is full the request
+// gets a 503 with Retry-After at once, rather than the server piling up
+// work it cannot keep up with. A request of more than -batch puzzles gets a 413.
+// With -cache the puzzles go through a SolutionCache of that many
+// megabytes, and GET /stats shows its hits, misses and costs.
+//
+// Usage: java SolverServer [-port n] [-threads n] [-queue n] [-batch n] [-cache mb]
+public class SolverServer {
+    private static final int DEFAULT_PORT = 8080;
+    private static final int DEFAULT_QUEUE_PER_THREAD = 4;
+    private static final int DEFAULT_MAX_BATCH = 10000;
+
+    private final HttpServer server;
+    private final ThreadPoolExecutor workers;
+    private final int maxBatch;
+    private final SolutionCache cache;
+
+    // A null cache solves every puzzle
+    public SolverServer(int port, int threads, int queueSize, int maxBatch, SolutionCache cache)
+            throws IOException {
+        this.maxBatch = maxBatch;
+        this.cache = cache;
+        workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), new ThreadPoolExecutor.AbortPolicy());
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        // The handler only hands the request over to the workers, so it runs
+        // on the thread of the server; the workers read, solve and answer
+        server.createContext("/solve", this::accept);
+        server.createContext("/stats", this::stats);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = DEFAULT_PORT;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int queueSize = -1;
+        int maxBatch = DEFAULT_MAX_BATCH;
+        SolutionCache cache = null;
+        for (int i = 0; i < args.length; ++i) {
+            switch (args[i]) {
+                case "-port":
+                    port = Integer.parseInt(args[++i]);
+                    break;
+                case "-threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "-queue":
+                    queueSize = Integer.parseInt(args[++i]);
+                    break;
+                case "-batch":
+                    maxBatch = Integer.parseInt(args[++i]);
+                    break;
+                case "-cache":
+                    cache = new SolutionCache(Long.parseLong(args[++i]) << 20);
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown option " + args[i]);
+            }
+        }
+        if (queueSize < 0) {
+            queueSize = threads * DEFAULT_QUEUE_PER_THREAD;
+        }
+        SolverServer solverServer = new SolverServer(port, threads, queueSize, maxBatch, cache);
+        Runtime.getRuntime().addShutdownHook(new Thread(solverServer::stop));
+        solverServer.start();
+        System.err.println("solving on port " + port + " with " + threads + " threads, queue " + queueSize);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    // Stops taking requests, lets the ones being solved finish
+    public void stop() {
+        server.stop(0);
+        workers.shutdown();
+        try {
+            workers.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void accept(HttpExchange exchange) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            exchange.getResponseHeaders().set("Allow", "POST");
+            sendError(exchange, 405, "POST puzzles to /solve");
+            return;
+        }
+        SolveMode mode = parseMode(exchange.getRequestURI().getQuery());
+        if (mode == null) {
+            sendError(exchange, 400, "mode is techniques, guess, unique, dlx or parallel");
+            return;
+        }
+        try {
+            workers.execute(() -> solve(exchange, mode));
+        } catch (RejectedExecutionException e) {
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            sendError(exchange, 503, "too many requests waiting, try again later");
+        }
+    }
+
+    private void solve(HttpExchange exchange, SolveMode mode) {
+        try {
+            List<String> puzzles = new ArrayList<>();
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(exchange.getRequestBody(), StandardCharsets.US_ASCII))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if (line.isEmpty() || line.startsWith("#")) {
+                        continue;
+                    }
+                    if (puzzles.size() == maxBatch) {
+                        sendError(exchange, 413, "more than " + maxBatch + " puzzles in one request");
+                        return;
+                    }
+                    puzzles.add(line);
+                }
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/x-ndjson");
+            exchange.sendResponseHeaders(200, 0);
+            try (Writer writer = new BufferedWriter(
+                    new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.US_ASCII))) {
+                for (String puzzle : puzzles) {
+                    writer.write(toJson(cache != null ? cache.solve(puzzle, mode) : Sudoku.solve(puzzle, mode)));
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            // The client went away, nothing left to tell it
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void stats(HttpExchange exchange) throws IOException {
+        byte[] body = ((cache != null ? cache.toString() : "no cache") + "\n").getBytes(StandardCharsets.US_ASCII);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain");
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+
+    // The mode of a query such as mode=unique, GUESS without one, null for an unknown mode
+    private static SolveMode parseMode(String query) {
+        if (query == null) {
+            return SolveMode.GUESS;
+        }
+        SolveMode mode = SolveMode.GUESS;
+        for (String parameter : query.split("&")) {
+            if (parameter.startsWith("mode=")) {
+                String name = parameter.substring("mode=".length());
+                mode = name.equals("techniques") ? SolveMode.TECHNIQUES : SolveMode.fromFlag("-" + name);
+            }
+        }
+        return mode;
+    }
+
+    private static String toJson(SolveResult result) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"status\":\"").append(result.getStatus()).append('"');
+        sb.append(",\"grid\":");
+        appendString(sb, result.getGrid());
+        if (result.getHardestTechnique() != null) {
+            sb.append(",\"technique\":\"").append(result.getHardestTechnique()).append('"');
+        }
+        sb.append(",\"micros\":").append(result.getNanos() / 1000);
+        if (result.getError() != null) {
+            sb.append(",\"error\":");
+            appendString(sb, result.getError());
+        }
+        return sb.append('}').toString();
+    }
+
+    // A JSON string, the grid of an invalid puzzle is the line as it came
+    private static void appendString(StringBuilder sb, String value) {
+        sb.append('"');
+        for (int i = 0; i < value.length(); ++i) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < ' ' || c > '~') {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        sb.append('"');
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        byte[] body = (message + "\n").getBytes(StandardCharsets.US_ASCII);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain");
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+}
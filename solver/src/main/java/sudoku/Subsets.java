@@ -0,0 +1,46 @@
+package sudoku;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+public class Subsets {
+    private final Set<Integer> set;
+    private final int subSetSize;
+
+    public Subsets(Set<Integer> set, int subSetSize) {
+        this.set = set;
+        this.subSetSize = subSetSize;
+    }
+
+    public static void main(String[] args) {
+        Set<Integer> set = new TreeSet<Integer>();
+        set.add(1);
+        set.add(2);
+        set.add(3);
+        set.add(4);
+        set.add(5);
+        Subsets subsets = new Subsets(set, 3);
+        for (Set<Integer> subset : subsets.getSubSets()) {
+            System.out.println(subset);
+        }
+    }
+
+    // Collects every subset up front, callers that can stop early
+    // should walk a Combinations instead
+    public Set<Set<Integer>> getSubSets() {
+        Integer[] arr = new Integer[set.size()];
+        set.toArray(arr);
+        Set<Set<Integer>> subsets = new LinkedHashSet<Set<Integer>>();
+        Combinations combinations = new Combinations();
+        combinations.reset((1L << arr.length) - 1, subSetSize);
+        while (combinations.next()) {
+            Set<Integer> combo = new TreeSet<Integer>();
+            for (long bits = combinations.subset(); bits != 0; bits &= bits - 1) {
+                combo.add(arr[Long.numberOfTrailingZeros(bits)]);
+            }
+            subsets.add(combo);
+        }
+        return subsets;
+    }
+}
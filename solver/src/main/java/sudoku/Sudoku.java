@@ -0,0 +1,74 @@
+package sudoku;
+
+// The solver as a library: a puzzle in the one line format parseLine
+// reads goes in, a SolveResult comes out, and nothing is printed.
+// Safe to call from any number of threads, each solves with its own
+// solver from SolverPool.
+public final class Sudoku {
+    private Sudoku() {
+    }
+
+    // Solves with the techniques and a search where they get stuck
+    public static SolveResult solve(String puzzle) {
+        return solve(puzzle, SolveMode.GUESS);
+    }
+
+    public static SolveResult solve(String puzzle, SolveMode mode) {
+        long start = System.nanoTime();
+        try {
+            if (mode == SolveMode.DANCING_LINKS) {
+                return solveWithDancingLinks(puzzle, start);
+            }
+            return solveWithTechniques(puzzle, mode, start);
+        } catch (IllegalArgumentException e) {
+            return new SolveResult(SolveResult.Status.INVALID, puzzle, null, null, System.nanoTime() - start,
+                    e.getMessage());
+        }
+    }
+
+    private static SolveResult solveWithTechniques(String puzzle, SolveMode mode, long start) {
+        SudokuSolver solver = SolverPool.get(SudokuSolver.gridSizeOf(puzzle.length()));
+        solver.setGuessingAllowed(mode == SolveMode.GUESS);
+        solver.load(puzzle);
+        if (solver.hasConflictingValues()) {
+            return new SolveResult(SolveResult.Status.INVALID, puzzle, null, null, System.nanoTime() - start,
+                    "two givens clash");
+        }
+        SolveResult.Status status;
+        String grid;
+        if (mode == SolveMode.UNIQUE) {
+            SolutionCount count = solver.countSolutions(2);
+            if (count.getCount() == 1) {
+                status = SolveResult.Status.SOLVED;
+                grid = count.getSolution(0);
+            } else {
+                status = count.getCount() == 0
+                        ? SolveResult.Status.NO_SOLUTION
+                        : SolveResult.Status.MULTIPLE_SOLUTIONS;
+                grid = puzzle;
+            }
+        } else if (mode == SolveMode.PARALLEL ? ParallelSearch.common().solve(solver) : solver.solve()) {
+            status = SolveResult.Status.SOLVED;
+            grid = solver.getSolution();
+        } else {
+            status = mode == SolveMode.TECHNIQUES ? SolveResult.Status.UNSOLVED : SolveResult.Status.NO_SOLUTION;
+            grid = solver.getSolution();
+        }
+        // The solver goes back to the pool, so the result gets its own stats
+        SolveStats stats = SolveStats.ENABLED ? solver.getStats().copy() : null;
+        return new SolveResult(status, grid, solver.getHardestTechnique(), stats, System.nanoTime() - start, null);
+    }
+
+    private static SolveResult solveWithDancingLinks(String puzzle, long start) {
+        DancingLinksSolver solver = new DancingLinksSolver(SudokuSolver.parseLine(puzzle));
+        if (solver.hasConflictingValues()) {
+            return new SolveResult(SolveResult.Status.INVALID, puzzle, null, null, System.nanoTime() - start,
+                    "two givens clash");
+        }
+        if (solver.solve()) {
+            return new SolveResult(SolveResult.Status.SOLVED, solver.getSolution(), null, null,
+                    System.nanoTime() - start, null);
+        }
+        return new SolveResult(SolveResult.Status.NO_SOLUTION, puzzle, null, null, System.nanoTime() - start, null);
+    }
+}
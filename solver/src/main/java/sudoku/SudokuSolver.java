@@ -0,0 +1,1564 @@
+package sudoku;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class SudokuSolver {
+    private static final char EMPTY = '.';
+    private static final char ZERO = '0';
+    // The grid of a puzzle is 4x4, 9x9, 16x16, 25x25 or 36x36
+    private static final int MIN_BLOCK_SIZE = 2;
+    private static final int MAX_BLOCK_SIZE = 6;
+    static final int MAX_GRID_SIZE = MAX_BLOCK_SIZE * MAX_BLOCK_SIZE;
+    // A grid of size n uses the first n of these symbols, so 0 is the last
+    // symbol of a 36x36 grid and stands for an empty cell on smaller ones
+    private static final char[] symbols = "123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ0".toCharArray();
+    // Bit i of every candidate mask stands for symbols[i]
+    private static final int[] symbolIndex = new int[128];
+    // Closed sets and NX-wings are looked for up to this size unless
+    // setMaxSubsetSize says otherwise. Together with the hidden sets and
+    // the transposed wings that is every size on a 9x9 grid.
+    static final int DEFAULT_MAX_SUBSET_SIZE = 4;
+    // The largest hidden set findHiddenSet looks for, findClosedSet does the larger ones
+    private static final int MAX_HIDDEN_SET_SIZE = 3;
+    // The techniques a new solver starts with switched off: the ones after
+    // NX_WING, which cost more than the guesses they save, unless named in
+    // -Dsudoku.enable, and any named in -Dsudoku.disable to see what they save
+    private static final Set<Technique> DISABLED_BY_DEFAULT = EnumSet.of(
+            Technique.XY_WING, Technique.XYZ_WING, Technique.SIMPLE_COLORING, Technique.X_CHAIN);
+    private static final Set<Technique> ENABLED_BY_PROPERTY = parseTechniques(System.getProperty("sudoku.enable", ""));
+    private static final Set<Technique> DISABLED_BY_PROPERTY = parseTechniques(System.getProperty("sudoku.disable", ""));
+
+    static {
+        Arrays.fill(symbolIndex, -1);
+        for (int i = 0; i < symbols.length; ++i) {
+            symbolIndex[symbols[i]] = i;
+        }
+    }
+
+    // The symbols of a grid of the given size, 1 to 9, then A to Z, then 0
+    static char[] alphabet(int size) {
+        if (size > symbols.length) {
+            throw new IllegalArgumentException("no alphabet for grid size " + size);
+        }
+        return Arrays.copyOf(symbols, size);
+    }
+
+    // True if the character is one of the symbols of a grid of the given size
+    private static boolean isSymbol(char c, int size) {
+        return c < symbolIndex.length && symbolIndex[c] >= 0 && symbolIndex[c] < size;
+    }
+
+    // The index of a symbol in the alphabet of a grid of the given size, -1 for any other character
+    static int indexOfSymbol(char c, int size) {
+        return isSymbol(c, size) ? symbolIndex[c] : -1;
+    }
+
+    private final int gridSize;
+    // The bits of all the symbols of the grid
+    private final long allSymbols;
+    // The value of each cell, EMPTY until it is solved, indexed by row * gridSize + col
+    private final char[] grid;
+    private int emptyCells;
+    // One bitmask of possible symbols per cell, indexed by row * gridSize + col.
+    // A cell that has a value has no possibilities left.
+    private final long[] gridPossibilities;
+    private final GridGeometry geometry;
+    // Units are the rows, then the cols, then the blocks of the grid,
+    // each holding the cell indexes of its members
+    private final int[][] unitCells;
+    // Bitmask of the symbols already placed in each unit
+    private final long[] unitValues;
+    // The possible positions of each symbol in each unit, indexed by
+    // symbol * unitCount + unit, for the fish and chain techniques. Rebuilt
+    // from gridPossibilities when they need it after it changed. Within one
+    // run of a technique they can still hold positions it has just removed,
+    // which only makes them find less, never something wrong.
+    private final long[] unitPositions;
+    private boolean unitPositionsStale = true;
+    // Scratch space for findSimpleColoring and findXChain: the chain a cell
+    // was last put on and its color there, or for an X-chain the last one
+    // that reached it without and with the symbol, the cells in the order
+    // they were reached and the colors seen in each unit
+    private final int[] chainMarks;
+    private final int[] chainParities;
+    private final int[] chainHoldMarks;
+    private final int[] chainQueue;
+    private final int[] unitColors;
+    private int chainMark = 0;
+    // Scratch space for the wings and X-chains: the peers of a cell that could take part
+    private final int[] pincers;
+    // Scratch space for findHiddenSet and findClosedSet: the possible positions of each symbol in a unit
+    private final long[] symbolPositions;
+    private int maxSubsetSize = DEFAULT_MAX_SUBSET_SIZE;
+    private final Combinations combinations = new Combinations();
+
+    boolean gridChanged = false;
+    // The technique running now, for the events
+    private Technique currentTechnique;
+    // Set when an empty cell loses its last possibility
+    private boolean contradiction = false;
+
+    // The work lists of the techniques, what changed since each last looked:
+    // the cells down to one possibility, the blocks and units whose cells
+    // lost possibilities, and the symbols removed anywhere
+    private final int[] singlesQueue;
+    private int singlesCount = 0;
+    private final boolean[] hiddenSingleDirty;
+    private final boolean[] blockRestrictionDirty;
+    private final boolean[] hiddenSetDirty;
+    private final boolean[] closedSetDirty;
+    private long nxWingDirtySymbols;
+    private boolean xyWingDirty;
+    private boolean xyzWingDirty;
+    private long coloringDirtySymbols;
+    private long xChainDirtySymbols;
+    // Set when two given values clash in a unit
+    private boolean conflictingValues = false;
+    // Hears about every step of the solve, the events are only built when tracing
+    private final SolveListener listener;
+    private final boolean tracing;
+    private boolean allowGuess = false;
+    // Indexed by Technique ordinal, see setTechniqueEnabled
+    private final boolean[] disabled = new boolean[Technique.values().length];
+
+    // The state saved before each guess of the search, one slot per search depth,
+    // allocated the first time the search gets that deep
+    private final long[][] savedPossibilities;
+    private final long[][] savedUnitValues;
+    private final char[][] savedGrid;
+    private final int[] savedEmptyCells;
+    // The hardest technique that has changed the grid so far, null before any
+    private Technique hardestTechnique;
+    private final SolveStats stats = new SolveStats();
+    // Collects the solutions while countSolutions is running
+    private SolutionCount solutionCount;
+    // Set once another task of a ParallelSearch has found the solution, null outside one
+    private AtomicBoolean cancelled;
+
+    public SudokuSolver(List<Character>[][] problemGrid) {
+        this(problemGrid, SolveListener.NONE);
+    }
+
+    // The size of the grid is the number of rows of problemGrid
+    public SudokuSolver(List<Character>[][] problemGrid, SolveListener listener) {
+        this(problemGrid.length, listener);
+        for (int row = 0; row < gridSize; ++row) {
+            for (int col = 0; col < gridSize; ++col) {
+                if (!problemGrid[row][col].isEmpty()) {
+                    loadCell(row * gridSize + col, problemGrid[row][col].get(0));
+                }
+            }
+        }
+    }
+
+    // An empty grid of the given size, for load() to put puzzles in.
+    // One solver can solve any number of puzzles one after the other,
+    // all its arrays are allocated here once.
+    public SudokuSolver(int gridSize) {
+        this(gridSize, SolveListener.NONE);
+    }
+
+    public SudokuSolver(int gridSize, SolveListener listener) {
+        this.listener = listener;
+        tracing = listener != SolveListener.NONE;
+        this.gridSize = gridSize;
+        if (gridSize > symbols.length) {
+            throw new IllegalArgumentException("no alphabet for grid size " + gridSize);
+        }
+        allSymbols = (1L << gridSize) - 1;
+        geometry = GridGeometry.forSize(gridSize);
+        grid = new char[geometry.cellCount];
+        emptyCells = geometry.cellCount;
+        gridPossibilities = new long[geometry.cellCount];
+        unitCells = geometry.unitCells;
+        unitValues = new long[unitCells.length];
+        unitPositions = new long[gridSize * unitCells.length];
+        chainMarks = new int[geometry.cellCount];
+        chainParities = new int[geometry.cellCount];
+        chainHoldMarks = new int[geometry.cellCount];
+        chainQueue = new int[geometry.cellCount * 2];
+        unitColors = new int[unitCells.length];
+        pincers = new int[geometry.peers[0].length];
+        for (Technique technique : DISABLED_BY_DEFAULT) {
+            setTechniqueEnabled(technique, ENABLED_BY_PROPERTY.contains(technique));
+        }
+        for (Technique technique : DISABLED_BY_PROPERTY) {
+            setTechniqueEnabled(technique, false);
+        }
+        symbolPositions = new long[gridSize];
+        savedPossibilities = new long[geometry.cellCount][];
+        savedUnitValues = new long[geometry.cellCount][];
+        savedGrid = new char[geometry.cellCount][];
+        savedEmptyCells = new int[geometry.cellCount];
+        singlesQueue = new int[geometry.cellCount];
+        hiddenSingleDirty = new boolean[unitCells.length];
+        blockRestrictionDirty = new boolean[unitCells.length];
+        hiddenSetDirty = new boolean[unitCells.length];
+        closedSetDirty = new boolean[unitCells.length];
+        reset();
+    }
+
+    // Empties the grid, forgetting the puzzle and how it was solved.
+    // The settings, such as guessing, stay as they are.
+    public void reset() {
+        Arrays.fill(grid, EMPTY);
+        emptyCells = grid.length;
+        Arrays.fill(gridPossibilities, allSymbols);
+        Arrays.fill(unitValues, 0);
+        markAllDirty();
+        singlesCount = 0;
+        contradiction = false;
+        conflictingValues = false;
+        gridChanged = false;
+        hardestTechnique = null;
+        stats.reset();
+    }
+
+    // Reset, then place the givens of a puzzle written as one line, row after
+    // row, the way parseLine reads it but without allocating anything.
+    // The line has exactly one character per cell. On an invalid character
+    // the grid is left half loaded, load the next puzzle over it.
+    public void load(CharSequence puzzle) {
+        checkLength(puzzle.length());
+        reset();
+        for (int cell = 0; cell < grid.length; ++cell) {
+            loadCell(cell, puzzle.charAt(cell));
+        }
+    }
+
+    public void load(char[] puzzle) {
+        checkLength(puzzle.length);
+        reset();
+        for (int cell = 0; cell < grid.length; ++cell) {
+            loadCell(cell, puzzle[cell]);
+        }
+    }
+
+    // The puzzle as ASCII characters, as it is read from a file
+    public void load(byte[] puzzle) {
+        checkLength(puzzle.length);
+        reset();
+        for (int cell = 0; cell < grid.length; ++cell) {
+            loadCell(cell, (char) (puzzle[cell] & 0xff));
+        }
+    }
+
+    // The puzzle as ASCII characters at offset in a buffer, such as a
+    // memory-mapped file, read in place without moving its position.
+    // The buffer goes on past the puzzle, the caller checks where its line
+    // ends, as MappedPuzzleReader does.
+    public void load(ByteBuffer puzzle, int offset) {
+        if (puzzle.limit() - offset < grid.length) {
+            throw new IllegalArgumentException("buffer ends " + (puzzle.limit() - offset)
+                    + " characters into a puzzle of " + grid.length);
+        }
+        reset();
+        for (int cell = 0; cell < grid.length; ++cell) {
+            loadCell(cell, (char) (puzzle.get(offset + cell) & 0xff));
+        }
+    }
+
+    // A 9x9 puzzle in the 41 byte format of PackedPuzzles at offset in a buffer
+    public void loadPacked(ByteBuffer puzzle, int offset) {
+        if (gridSize != PackedPuzzles.GRID_SIZE) {
+            throw new IllegalArgumentException("packed puzzles are 9x9, the grid is " + gridSize + "x" + gridSize);
+        }
+        reset();
+        for (int cell = 0; cell < grid.length; ++cell) {
+            int value = PackedPuzzles.valueAt(puzzle, offset, cell);
+            if (value > gridSize) {
+                throw new IllegalArgumentException("Invalid packed value " + value + " in cell " + cell);
+            }
+            loadCell(cell, value == 0 ? EMPTY : symbols[value - 1]);
+        }
+    }
+
+    private void checkLength(int length) {
+        if (length != grid.length) {
+            throw new IllegalArgumentException("line length is not " + grid.length + ", is " + length);
+        }
+    }
+
+    private void loadCell(int cell, char val) {
+        if (isSymbol(val, gridSize)) {
+            if ((gridPossibilities[cell] & (1L << symbolIndex[val])) == 0) {
+                conflictingValues = true;
+            }
+            setValueInGrid(geometry.cellRow[cell], geometry.cellCol[cell], val, null);
+        } else if (val != EMPTY && val != ZERO) {
+            throw new IllegalArgumentException("Invalid character, must be " + EMPTY
+                    + " or one of the following:" + new String(alphabet(gridSize)));
+        }
+    }
+
+    // Usage: java SudokuSolver [-guess | -dlx] [-quiet] [-trace file]
+    // -quiet leaves out the running commentary, -trace writes the events
+    // of the solve to the file as JSON lines.
+    // The length of the first row gives the size of the grid.
+    @SuppressWarnings("unchecked")
+    public static void main(String[] args) throws IOException {
+        List<String> options = Arrays.asList(args);
+        int traceIndex = options.indexOf("-trace");
+        if (traceIndex >= 0 && (traceIndex + 1 == args.length || args[traceIndex + 1].startsWith("-"))) {
+            System.err.println("Usage: java SudokuSolver [-guess | -dlx] [-quiet] [-trace file]");
+            System.exit(2);
+        }
+        System.out.println("Enter the problem with dot notation, row by row, such as ..3..47..");
+        BufferedReader reader = new BufferedReader(new InputStreamReader(System.in));
+        String line = reader.readLine().trim();
+        int gridSize = line.length();
+        if (!isGridSize(gridSize)) {
+            throw new IOException("line length is not 4, 9, 16, 25 or 36, is " + gridSize);
+        }
+        List<Character>[][] problemGrid = new ArrayList[gridSize][gridSize];
+        for (int row = 0; row < gridSize; ++row) {
+            if (row > 0) {
+                line = reader.readLine();
+            }
+            if (line.length() != gridSize) {
+                throw new IOException("line length is not " + gridSize + ", is " + line.length());
+            }
+            for (int col = 0; col < gridSize; ++col) {
+                char val = line.charAt(col);
+                problemGrid[row][col] = new ArrayList<>();
+                if (isSymbol(val, gridSize)) {
+                    problemGrid[row][col].add(val);
+                } else if (val != EMPTY) {
+                    throw new IOException("Invalid character, must be " + EMPTY
+                            + " or one of the following:" + new String(alphabet(gridSize)));
+                }
+            }
+        }
+
+        if (options.contains("-dlx")) {
+            DancingLinksSolver dlx = new DancingLinksSolver(problemGrid);
+            if (dlx.solve()) {
+                System.out.println("===SOLUTION===");
+                String solution = dlx.getSolution();
+                for (int row = 0; row < gridSize; ++row) {
+                    for (int col = 0; col < gridSize; ++col) {
+                        System.out.print("[" + solution.charAt(row * gridSize + col) + "]");
+                    }
+                    System.out.println();
+                }
+            } else {
+                System.out.println("GRID NOT SOLVED");
+            }
+            return;
+        }
+        SolveListener listener = options.contains("-quiet") ? SolveListener.NONE : new PrintingSolveListener(System.out);
+        PrintWriter trace = null;
+        if (traceIndex >= 0) {
+            trace = new PrintWriter(new BufferedWriter(new FileWriter(args[traceIndex + 1])));
+            listener = new JsonTraceWriter(trace);
+        }
+        SudokuSolver solver = new SudokuSolver(problemGrid, listener);
+        solver.setGuessingAllowed(options.contains("-guess"));
+        boolean solved = solver.solve();
+        if (trace != null) {
+            trace.close();
+        }
+        if (!(listener instanceof PrintingSolveListener)) {
+            System.out.println(solved ? solver.getSolution() : "GRID NOT SOLVED");
+        }
+    }
+
+    // Reads a whole puzzle from one line, row after row, such as the
+    // common 81 character format. The length of the line gives the grid,
+    // 256 characters for 16x16 and so on.
+    // Both . and 0 stand for an empty cell, but on a 36x36 grid 0 is a symbol.
+    @SuppressWarnings("unchecked")
+    public static List<Character>[][] parseLine(String line) {
+        int gridSize = gridSizeOf(line.length());
+        List<Character>[][] problemGrid = new ArrayList[gridSize][gridSize];
+        for (int row = 0; row < gridSize; ++row) {
+            for (int col = 0; col < gridSize; ++col) {
+                char val = line.charAt(row * gridSize + col);
+                problemGrid[row][col] = new ArrayList<>();
+                if (isSymbol(val, gridSize)) {
+                    problemGrid[row][col].add(val);
+                } else if (val != EMPTY && val != ZERO) {
+                    throw new IllegalArgumentException("Invalid character, must be " + EMPTY
+                            + " or one of the following:" + new String(alphabet(gridSize)));
+                }
+            }
+        }
+        return problemGrid;
+    }
+
+    // The size of the grid with one cell for each character of a line of
+    // the given length. A line a character short or over is no puzzle,
+    // rather than a smaller grid with characters to spare.
+    public static int gridSizeOf(int lineLength) {
+        for (int blockSize = MIN_BLOCK_SIZE; blockSize <= MAX_BLOCK_SIZE; ++blockSize) {
+            int size = blockSize * blockSize;
+            if (size * size == lineLength) {
+                return size;
+            }
+        }
+        throw new IllegalArgumentException("line length is not 16, 81, 256, 625 or 1296, is " + lineLength);
+    }
+
+    // True for the sizes of grid there are blocks and symbols for
+    static boolean isGridSize(int size) {
+        for (int blockSize = MIN_BLOCK_SIZE; blockSize <= MAX_BLOCK_SIZE; ++blockSize) {
+            if (blockSize * blockSize == size) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Lets solve() fall back on a backtracking search when the techniques get stuck
+    public void setGuessingAllowed(boolean allowGuess) {
+        this.allowGuess = allowGuess;
+    }
+
+    boolean isGuessingAllowed() {
+        return allowGuess;
+    }
+
+    // Switches a technique of propagate() off or on, to measure what it
+    // costs against what it saves. XY_WING, XYZ_WING, SIMPLE_COLORING and
+    // X_CHAIN start off. SINGLE cannot be switched off, the others rely on
+    // it to place values, and GUESSING is setGuessingAllowed. With
+    // HIDDEN_SINGLE or HIDDEN_SET off, findClosedSet looks for the hidden
+    // sets they would have found, as it finds the larger naked sets
+    // through them, so CLOSED_SET still finds every closed set.
+    public void setTechniqueEnabled(Technique technique, boolean enabled) {
+        if (technique == Technique.SINGLE || technique == Technique.GUESSING) {
+            throw new IllegalArgumentException(technique + " cannot be switched off");
+        }
+        disabled[technique.ordinal()] = !enabled;
+    }
+
+    public boolean isTechniqueEnabled(Technique technique) {
+        return !disabled[technique.ordinal()];
+    }
+
+    // The techniques named in a comma separated list, such as XY_WING,X_CHAIN
+    static Set<Technique> parseTechniques(String names) {
+        Set<Technique> techniques = EnumSet.noneOf(Technique.class);
+        for (String name : names.split(",")) {
+            if (!name.trim().isEmpty()) {
+                techniques.add(Technique.valueOf(name.trim().toUpperCase(Locale.ROOT)));
+            }
+        }
+        return techniques;
+    }
+
+    // The largest closed set and NX-wing to look for. Both cost a walk over
+    // subsets of a unit, which gets out of hand for large sets on 25x25 grids.
+    public void setMaxSubsetSize(int maxSubsetSize) {
+        this.maxSubsetSize = maxSubsetSize;
+    }
+
+    // The counters and timers of the solve so far
+    public SolveStats getStats() {
+        return stats;
+    }
+
+    // The hardest technique solve() needed, null if the givens alone solved the grid
+    public Technique getHardestTechnique() {
+        return hardestTechnique;
+    }
+
+    public boolean hasConflictingValues() {
+        return conflictingValues;
+    }
+
+    public int getGridSize() {
+        return gridSize;
+    }
+
+    public boolean isSolved(int row, int col) {
+        return grid[row * gridSize + col] != EMPTY;
+    }
+
+    // The value of a cell, . if it is not solved
+    public char getValue(int row, int col) {
+        return grid[row * gridSize + col];
+    }
+
+    // The symbols still possible in a cell, nothing once it is solved
+    public String getPossibilities(int row, int col) {
+        return symbolsOf(gridPossibilities[row * gridSize + col]);
+    }
+
+    // The symbols of a bitmask of possibilities
+    public static String symbolsOf(long possibilities) {
+        StringBuilder sb = new StringBuilder();
+        for (long bits = possibilities; bits != 0; bits &= bits - 1) {
+            sb.append(symbols[Long.numberOfTrailingZeros(bits)]);
+        }
+        return sb.toString();
+    }
+
+    // Copies the grid into solution, row after row, with . for the cells
+    // not solved, for callers that do not want a new String every time
+    public void getSolution(char[] solution) {
+        System.arraycopy(grid, 0, solution, 0, grid.length);
+    }
+
+    // The grid as one line, row after row, with . for the cells not solved
+    public String getSolution() {
+        StringBuilder sb = new StringBuilder(gridSize * gridSize);
+        for (int i = 0; i < gridSize; ++i) {
+            for (int j = 0; j < gridSize; ++j) {
+                sb.append(grid[i * gridSize + j]);
+            }
+        }
+        return sb.toString();
+    }
+
+    public boolean solve() {
+        propagate();
+        if (gridNotSolved()) {
+            listener.stuck(this);
+            if (gridNotSolvable()) {
+                listener.unsolvable();
+                return false;
+            }
+            if (allowGuess) {
+                listener.searchStarted();
+                return guessAndCheck();
+            }
+            else {
+                return false;
+            }
+        } else {
+            listener.solved(this);
+            return true;
+        }
+    }
+
+    // Applies the techniques, simplest first, until none of them changes the grid
+    // or the grid turns out to have no solution.
+    // Every technique only looks at what changed since it last ran and applies
+    // all the eliminations it finds, then the simpler ones get another go.
+    private void propagate() {
+        for (int i = 0; ; ++i) {
+            if (tracing) {
+                listener.iterationStarted(i, this);
+            }
+            runTechnique(Technique.SINGLE);
+            if (contradiction) {
+                return;
+            }
+            // findHiddenSingle can find a contradiction without changing the grid
+            if (runTechnique(Technique.HIDDEN_SINGLE)
+                    || contradiction
+                    || runTechnique(Technique.BLOCK_RESTRICTION)
+                    || runTechnique(Technique.HIDDEN_SET)
+                    || runTechnique(Technique.CLOSED_SET)
+                    || runTechnique(Technique.NX_WING)
+                    || runTechnique(Technique.XY_WING)
+                    || runTechnique(Technique.XYZ_WING)
+                    || runTechnique(Technique.SIMPLE_COLORING)
+                    || runTechnique(Technique.X_CHAIN)) {
+                continue;
+            }
+            if (tracing) {
+                listener.nothingChanged(this);
+            }
+            break;
+        }
+    }
+
+    // Runs one technique over its work list, returns true if it changed the grid.
+    // A technique switched off does nothing.
+    // Not private so the benchmarks can time one technique alone.
+    boolean runTechnique(Technique technique) {
+        if (disabled[technique.ordinal()]) {
+            return false;
+        }
+        if (tracing) {
+            listener.techniqueStarted(technique, this);
+        }
+        gridChanged = false;
+        currentTechnique = technique;
+        long start = 0;
+        long combinationsBefore = 0;
+        if (SolveStats.ENABLED) {
+            start = System.nanoTime();
+            combinationsBefore = combinations.getCount();
+        }
+        switch (technique) {
+            case SINGLE:
+                scanForPossibilitiesOfLengthOne();
+                break;
+            case HIDDEN_SINGLE:
+                findHiddenSingle();
+                break;
+            case BLOCK_RESTRICTION:
+                findBlockRestriction();
+                break;
+            case HIDDEN_SET:
+                findHiddenSet();
+                break;
+            case CLOSED_SET:
+                findClosedSet();
+                break;
+            case NX_WING:
+                findNXWing();
+                break;
+            case XY_WING:
+                findXYWing();
+                break;
+            case XYZ_WING:
+                findXYZWing();
+                break;
+            case SIMPLE_COLORING:
+                findSimpleColoring();
+                break;
+            case X_CHAIN:
+                findXChain();
+                break;
+            default:
+                throw new IllegalArgumentException("not a propagation technique: " + technique);
+        }
+        if (SolveStats.ENABLED) {
+            int t = technique.ordinal();
+            ++stats.runs[t];
+            stats.nanos[t] += System.nanoTime() - start;
+            stats.combinations += combinations.getCount() - combinationsBefore;
+        }
+        if (gridChanged) {
+            usedTechnique(technique);
+        }
+        if (tracing) {
+            listener.techniqueFinished(technique, gridChanged, this);
+        }
+        return gridChanged;
+    }
+
+    // Counts the solutions of the grid, searching past the first one until
+    // limit of them are found, usually 2 to check that a puzzle is unique.
+    // Meant for a solver fresh from its constructor or load(), guessing is always on.
+    // The grid is left at the last solution found when the limit is reached.
+    public SolutionCount countSolutions(int limit) {
+        return countSolutions(new SolutionCount(limit));
+    }
+
+    // The same up to the limit of count, into a SolutionCount the caller
+    // keeps from puzzle to puzzle, which forgets the solutions it held
+    public SolutionCount countSolutions(SolutionCount count) {
+        count.reset(grid.length);
+        int limit = count.getLimit();
+        solutionCount = count;
+        if (limit > 0 && !conflictingValues) {
+            propagate();
+            if (!gridNotSolvable()) {
+                if (!gridNotSolved()) {
+                    solutionCount.addSolution(grid);
+                } else {
+                    search(0, limit);
+                }
+            }
+        }
+        solutionCount = null;
+        return count;
+    }
+
+    private void usedTechnique(Technique technique) {
+        if (hardestTechnique == null || technique.compareTo(hardestTechnique) > 0) {
+            hardestTechnique = technique;
+        }
+    }
+
+    // So we couldn't eliminate enough to solve, let's guess
+    private boolean guessAndCheck() {
+        return search(0, 1) > 0;
+    }
+
+    // Depth first search: tries each possibility of the cell with the fewest
+    // and propagates it, restoring the state saved before the guess when the
+    // grid turns out to have no solution, or to look for more solutions.
+    // Returns the number of solutions found, stopping at limit, and leaves
+    // the grid at the last solution when it gets there.
+    private int search(int depth, int limit) {
+        usedTechnique(Technique.GUESSING);
+        if (SolveStats.ENABLED) {
+            stats.maxGuessDepth = Math.max(stats.maxGuessDepth, depth + 1);
+        }
+        int found = 0;
+        int cell = findCellWithFewestPossibilities();
+        int row = geometry.cellRow[cell];
+        int col = geometry.cellCol[cell];
+        saveState(depth);
+        for (long bits = gridPossibilities[cell]; bits != 0; bits &= bits - 1) {
+            if (cancelled != null && cancelled.get()) {
+                return found;
+            }
+            char val = symbols[Long.numberOfTrailingZeros(bits)];
+            if (tracing) {
+                listener.guessed(row, col, val, depth);
+            }
+            if (SolveStats.ENABLED) {
+                ++stats.guesses;
+            }
+            setValueInGrid(row, col, val, Technique.GUESSING);
+            propagate();
+            int branchFound = 0;
+            if (!gridNotSolvable()) {
+                if (!gridNotSolved()) {
+                    listener.solved(this);
+                    if (solutionCount != null) {
+                        solutionCount.addSolution(grid);
+                    }
+                    branchFound = 1;
+                } else {
+                    branchFound = search(depth + 1, limit - found);
+                }
+            }
+            found += branchFound;
+            if (found >= limit) {
+                return found;
+            }
+            if (branchFound == 0 && tracing) {
+                listener.guessFailed(row, col, val, depth);
+            }
+            if (SolveStats.ENABLED) {
+                ++stats.backtracks;
+            }
+            restoreState(depth);
+        }
+        return found;
+    }
+
+    // The branching step of search for ParallelSearch, which splits the
+    // possibilities of branchCell() over tasks of their own: each task
+    // copies the state, guesses one possibility and searches from there
+    int branchCell() {
+        return findCellWithFewestPossibilities();
+    }
+
+    long possibilitiesOf(int cell) {
+        return gridPossibilities[cell];
+    }
+
+    // Places a guess and propagates it, false if that leaves no solution
+    boolean guess(int cell, int symbol) {
+        usedTechnique(Technique.GUESSING);
+        if (SolveStats.ENABLED) {
+            ++stats.guesses;
+        }
+        setValueInGrid(geometry.cellRow[cell], geometry.cellCol[cell], symbols[symbol], Technique.GUESSING);
+        propagate();
+        return !gridNotSolvable();
+    }
+
+    boolean isSolved() {
+        return !gridNotSolved();
+    }
+
+    // True unless the techniques have found there is no solution
+    boolean isSolvable() {
+        return !conflictingValues && !gridNotSolvable();
+    }
+
+    // The search of guessAndCheck from here, given up once cancelled is set
+    boolean searchUnless(AtomicBoolean cancelled) {
+        this.cancelled = cancelled;
+        try {
+            return search(0, 1) > 0;
+        } finally {
+            this.cancelled = null;
+        }
+    }
+
+    // Minimum remaining values: the empty cell with the fewest possibilities
+    private int findCellWithFewestPossibilities() {
+        int bestCell = -1;
+        int bestCount = Integer.MAX_VALUE;
+        for (int cell = 0; cell < gridPossibilities.length; ++cell) {
+            if (grid[cell] == EMPTY) {
+                int count = Long.bitCount(gridPossibilities[cell]);
+                if (count < bestCount) {
+                    bestCell = cell;
+                    bestCount = count;
+                    if (count <= 2) {
+                        break;
+                    }
+                }
+            }
+        }
+        return bestCell;
+    }
+
+    // Puts every unit and symbol on the work lists of the techniques.
+    // This and the state saving below are not private so the benchmarks
+    // can rewind the techniques to a fixed state.
+    void markAllDirty() {
+        Arrays.fill(hiddenSingleDirty, true);
+        Arrays.fill(blockRestrictionDirty, true);
+        Arrays.fill(hiddenSetDirty, true);
+        Arrays.fill(closedSetDirty, true);
+        nxWingDirtySymbols = allSymbols;
+        xyWingDirty = true;
+        xyzWingDirty = true;
+        coloringDirtySymbols = allSymbols;
+        xChainDirtySymbols = allSymbols;
+        unitPositionsStale = true;
+    }
+
+    void saveState(int depth) {
+        if (savedPossibilities[depth] == null) {
+            savedPossibilities[depth] = new long[gridPossibilities.length];
+            savedUnitValues[depth] = new long[unitValues.length];
+            savedGrid[depth] = new char[grid.length];
+        }
+        System.arraycopy(gridPossibilities, 0, savedPossibilities[depth], 0, gridPossibilities.length);
+        System.arraycopy(unitValues, 0, savedUnitValues[depth], 0, unitValues.length);
+        System.arraycopy(grid, 0, savedGrid[depth], 0, grid.length);
+        savedEmptyCells[depth] = emptyCells;
+    }
+
+    void restoreState(int depth) {
+        System.arraycopy(savedPossibilities[depth], 0, gridPossibilities, 0, gridPossibilities.length);
+        System.arraycopy(savedUnitValues[depth], 0, unitValues, 0, unitValues.length);
+        System.arraycopy(savedGrid[depth], 0, grid, 0, grid.length);
+        emptyCells = savedEmptyCells[depth];
+        // The state was saved once the techniques had nothing left to do
+        settle();
+    }
+
+    // The grid of another solver of the same size, taken over once its
+    // techniques had nothing left to do, for ParallelSearch to branch from,
+    // with the techniques it has switched on and off
+    void copyState(SudokuSolver other) {
+        System.arraycopy(other.disabled, 0, disabled, 0, disabled.length);
+        maxSubsetSize = other.maxSubsetSize;
+        System.arraycopy(other.gridPossibilities, 0, gridPossibilities, 0, gridPossibilities.length);
+        System.arraycopy(other.unitValues, 0, unitValues, 0, unitValues.length);
+        System.arraycopy(other.grid, 0, grid, 0, grid.length);
+        emptyCells = other.emptyCells;
+        hardestTechnique = other.hardestTechnique;
+        settle();
+    }
+
+    // The techniques have nothing left to do in the state just taken over
+    private void settle() {
+        contradiction = false;
+        singlesCount = 0;
+        Arrays.fill(hiddenSingleDirty, false);
+        Arrays.fill(blockRestrictionDirty, false);
+        Arrays.fill(hiddenSetDirty, false);
+        Arrays.fill(closedSetDirty, false);
+        nxWingDirtySymbols = 0;
+        xyWingDirty = false;
+        xyzWingDirty = false;
+        coloringDirtySymbols = 0;
+        xChainDirtySymbols = 0;
+        unitPositionsStale = true;
+    }
+
+    // An empty cell with no possibilities left, or a symbol with no place left
+    // in a unit, means there is no solution from here
+    private boolean gridNotSolvable() {
+        if (contradiction) {
+            listener.contradiction("Grid is unsolvable, either a mistake in data entry, or the algorithm, or in guesswork");
+            return true;
+        }
+        for (int cell = 0; cell < grid.length; ++cell) {
+            if (grid[cell] == EMPTY && gridPossibilities[cell] == 0) {
+                listener.contradiction("Grid is unsolvable, either a mistake in data entry, or the algorithm, or in guesswork");
+                return true;
+            }
+        }
+        for (int unit = 0; unit < unitCells.length; ++unit) {
+            long symbolsLeft = unitValues[unit];
+            for (int cell : unitCells[unit]) {
+                symbolsLeft |= gridPossibilities[cell];
+            }
+            if (symbolsLeft != allSymbols) {
+                listener.contradiction("Grid is unsolvable, a symbol has no place left in a unit");
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean gridNotSolved() {
+        return emptyCells > 0;
+    }
+
+    // Places the cells that got down to one possibility since the last time,
+    // and the ones that get there because of those placements
+    private void scanForPossibilitiesOfLengthOne() {
+        while (singlesCount > 0 && !contradiction) {
+            int cell = singlesQueue[--singlesCount];
+            long possibilities = gridPossibilities[cell];
+            if (grid[cell] == EMPTY && Long.bitCount(possibilities) == 1) {
+                setValueInGrid(geometry.cellRow[cell], geometry.cellCol[cell],
+                        symbols[Long.numberOfTrailingZeros(possibilities)], Technique.SINGLE);
+                if (SolveStats.ENABLED) {
+                    ++stats.eliminations[Technique.SINGLE.ordinal()];
+                }
+            }
+        }
+    }
+
+    // This is not private because we invoke this in the guess and check flow.
+    // The technique is the one that found the value, null for a given value.
+    void setValueInGrid(int row, int col, char val, Technique technique) {
+        if (tracing) {
+            listener.placed(row, col, val, technique);
+        }
+        int cell = row * gridSize + col;
+        long valBit = 1L << symbolIndex[val];
+        grid[cell] = val;
+        --emptyCells;
+        int[] units = geometry.cellUnits[cell];
+        for (int unit : units) {
+            unitValues[unit] |= valBit;
+            markDirty(unit);
+        }
+        blockRestrictionDirty[units[2]] = true;
+        markSymbolsDirty(gridPossibilities[cell]);
+        gridPossibilities[cell] = 0;
+        for (int peer : geometry.peers[cell]) {
+            removePossibilities(peer, valBit);
+        }
+        gridChanged = true;
+    }
+
+    // Removes the given symbols from a cell for the running technique,
+    // returns true if any were there
+    private boolean eliminate(int cell, long symbolBits) {
+        long removed = removePossibilities(cell, symbolBits);
+        if (removed == 0) {
+            return false;
+        }
+        gridChanged = true;
+        if (SolveStats.ENABLED) {
+            stats.eliminations[currentTechnique.ordinal()] += Long.bitCount(removed);
+        }
+        if (tracing) {
+            listener.eliminated(geometry.cellRow[cell], geometry.cellCol[cell], removed, currentTechnique);
+        }
+        return true;
+    }
+
+    // Removes the given symbols from a cell, returns the ones that were there.
+    // Every removal goes through here to put the change on the work lists.
+    private long removePossibilities(int cell, long symbolBits) {
+        long removed = gridPossibilities[cell] & symbolBits;
+        if (removed == 0) {
+            return 0;
+        }
+        long possibilities = gridPossibilities[cell] & ~symbolBits;
+        gridPossibilities[cell] = possibilities;
+        if (possibilities == 0) {
+            contradiction = true;
+        } else if ((possibilities & (possibilities - 1)) == 0) {
+            singlesQueue[singlesCount++] = cell;
+        }
+        int[] units = geometry.cellUnits[cell];
+        markDirty(units[0]);
+        markDirty(units[1]);
+        markDirty(units[2]);
+        blockRestrictionDirty[units[2]] = true;
+        markSymbolsDirty(removed);
+        return removed;
+    }
+
+    // Puts the symbols whose places changed on the work lists of the grid techniques
+    private void markSymbolsDirty(long symbolBits) {
+        nxWingDirtySymbols |= symbolBits;
+        coloringDirtySymbols |= symbolBits;
+        xChainDirtySymbols |= symbolBits;
+        xyWingDirty = true;
+        xyzWingDirty = true;
+        unitPositionsStale = true;
+    }
+
+    // Puts a unit whose cells changed on the work lists of the unit techniques
+    private void markDirty(int unit) {
+        hiddenSingleDirty[unit] = true;
+        hiddenSetDirty[unit] = true;
+        closedSetDirty[unit] = true;
+    }
+
+    // A symbol that can only go in one cell of a unit goes there.
+    // Runs over all the cells of the unit at once: seen is the symbols
+    // possible in the cells so far, seenTwice the ones possible in two of them.
+    private void findHiddenSingle() {
+        for (int row = 0; row < unitCells.length; ++row) {
+            if (!hiddenSingleDirty[row]) {
+                continue;
+            }
+            hiddenSingleDirty[row] = false;
+            int[] unit = unitCells[row];
+            long seen = 0;
+            long seenTwice = 0;
+            for (int cell : unit) {
+                long possibilities = gridPossibilities[cell];
+                seenTwice |= seen & possibilities;
+                seen |= possibilities;
+            }
+            if ((seen | unitValues[row]) != allSymbols) {
+                // A symbol has no place left
+                contradiction = true;
+                return;
+            }
+            for (long singles = seen & ~seenTwice; singles != 0; singles &= singles - 1) {
+                long valBit = singles & -singles;
+                // When two of the singles need the same cell the second one finds
+                // no place left, which the check above catches on the next run
+                for (int cell : unit) {
+                    if ((gridPossibilities[cell] & valBit) != 0) {
+                        setValueInGrid(geometry.cellRow[cell], geometry.cellCol[cell],
+                                symbols[Long.numberOfTrailingZeros(valBit)], Technique.HIDDEN_SINGLE);
+                        if (SolveStats.ENABLED) {
+                            ++stats.eliminations[Technique.HIDDEN_SINGLE.ordinal()];
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    // In a block, if a number n occurs only within
+    // a row or col, n cannot exist elsewhere in that rol,
+    // col on the main grid
+    private void findBlockRestriction() {
+        for (int row = gridSize * 2; row < unitCells.length; ++row) {
+            if (!blockRestrictionDirty[row]) {
+                continue;
+            }
+            blockRestrictionDirty[row] = false;
+            int[] cells = unitCells[row];
+            for (int symbol = 0; symbol < gridSize; ++symbol) {
+                long valBit = 1L << symbol;
+                if ((unitValues[row] & valBit) != 0) {
+                    continue;
+                }
+                // Bitmasks of the grid rows and cols within the block where the symbol can go
+                long blockRowOccurrences = 0;
+                long blockColOccurrences = 0;
+                for (int col = 0; col < gridSize; ++col) {
+                    if ((gridPossibilities[cells[col]] & valBit) != 0) {
+                        blockRowOccurrences |= 1L << geometry.cellRow[cells[col]];
+                        blockColOccurrences |= 1L << geometry.cellCol[cells[col]];
+                    }
+                }
+                if (Long.bitCount(blockRowOccurrences) == 1) {
+                    int blockRow = Long.numberOfTrailingZeros(blockRowOccurrences);
+                    for (int col2 = 0; col2 < gridSize; ++col2) {
+                        if ((blockColOccurrences & (1L << col2)) == 0) {
+                            eliminate(blockRow * gridSize + col2, valBit);
+                        }
+                    }
+                } else if (Long.bitCount(blockColOccurrences) == 1) {
+                    int blockCol = Long.numberOfTrailingZeros(blockColOccurrences);
+                    for (int row2 = 0; row2 < gridSize; ++row2) {
+                        if ((blockRowOccurrences & (1L << row2)) == 0) {
+                            eliminate(row2 * gridSize + blockCol, valBit);
+                        }
+                    }
+
+                }
+            }
+        }
+    }
+
+    // A closed set is a set of n numbers in n cells
+    // A closed set eliminates those n numbers from the remaining cells
+    // This is the main sudoku logic that solves the majority of problems
+    // Among the m empty cells of a unit, a closed set of n cells leaves the
+    // other m - n numbers to the other m - n cells, a hidden set. So looking
+    // for both kinds up to m / 2 finds every closed set, without walking the
+    // huge number of large subsets of a 25x25 unit.
+    private void findClosedSet() {
+        for (int row = 0; row < unitCells.length; ++row) {
+            if (!closedSetDirty[row]) {
+                continue;
+            }
+            closedSetDirty[row] = false;
+            int[] unit = unitCells[row];
+            long emptyCols = findSymbolPositions(row);
+            long missingSymbols = allSymbols & ~unitValues[row];
+            int maxSetSize = Math.min(maxSubsetSize, Long.bitCount(emptyCols) / 2);
+            // The smaller hidden sets are left to findHiddenSingle and findHiddenSet,
+            // unless those are switched off
+            boolean smallHiddenSets = disabled[Technique.HIDDEN_SET.ordinal()];
+            if (disabled[Technique.HIDDEN_SINGLE.ordinal()]) {
+                findHiddenSets(unit, missingSymbols, 1);
+            }
+            for (int setSize = 2; setSize <= maxSetSize; ++setSize) {
+                findNakedSets(unit, emptyCols, setSize);
+                if (setSize > MAX_HIDDEN_SET_SIZE || smallHiddenSets) {
+                    findHiddenSets(unit, missingSymbols, setSize);
+                }
+            }
+        }
+    }
+
+    // Fills in symbolPositions for the symbols missing from a unit,
+    // returns the bitmask of the unit positions of its empty cells
+    private long findSymbolPositions(int row) {
+        int[] unit = unitCells[row];
+        long emptyCols = 0;
+        for (int col = 0; col < gridSize; ++col) {
+            if (gridPossibilities[unit[col]] != 0) {
+                emptyCols |= 1L << col;
+            }
+        }
+        for (long bits = allSymbols & ~unitValues[row]; bits != 0; bits &= bits - 1) {
+            int symbol = Long.numberOfTrailingZeros(bits);
+            long positions = 0;
+            for (long cols = emptyCols; cols != 0; cols &= cols - 1) {
+                int col = Long.numberOfTrailingZeros(cols);
+                if ((gridPossibilities[unit[col]] & (1L << symbol)) != 0) {
+                    positions |= 1L << col;
+                }
+            }
+            symbolPositions[symbol] = positions;
+        }
+        return emptyCols;
+    }
+
+    // Hidden pairs and triples: 2 or 3 symbols that can only go in as many
+    // cells of a unit, so those cells can hold nothing else. Cheaper than
+    // findClosedSet, which only gets the sets this misses.
+    private void findHiddenSet() {
+        int maxSetSize = Math.min(maxSubsetSize, MAX_HIDDEN_SET_SIZE);
+        for (int row = 0; row < unitCells.length; ++row) {
+            if (!hiddenSetDirty[row]) {
+                continue;
+            }
+            hiddenSetDirty[row] = false;
+            findSymbolPositions(row);
+            long missingSymbols = allSymbols & ~unitValues[row];
+            for (int setSize = 2; setSize <= maxSetSize; ++setSize) {
+                findHiddenSets(unitCells[row], missingSymbols, setSize);
+            }
+        }
+    }
+
+    // The closed sets of setSize cells among the empty cells of a unit
+    private void findNakedSets(int[] unit, long emptyCols, int setSize) {
+        // Bitmask of the unit positions that could be part of a closed set of this size
+        long cells = 0;
+        for (long cols = emptyCols; cols != 0; cols &= cols - 1) {
+            int col = Long.numberOfTrailingZeros(cols);
+            long possibilities = gridPossibilities[unit[col]];
+            if (possibilities != 0 && Long.bitCount(possibilities) <= setSize) {
+                cells |= 1L << col;
+            }
+        }
+        if (Long.bitCount(cells) < setSize) {
+            return;
+        }
+        combinations.reset(cells, setSize);
+        while (combinations.next()) {
+            long subsetCols = combinations.subset();
+            long allPossibilities = 0;
+            for (long bits = subsetCols; bits != 0; bits &= bits - 1) {
+                allPossibilities |= gridPossibilities[unit[Long.numberOfTrailingZeros(bits)]];
+            }
+            if (Long.bitCount(allPossibilities) == setSize) {
+                // Got a closed loop
+                for (long cols = emptyCols & ~subsetCols; cols != 0; cols &= cols - 1) {
+                    eliminate(unit[Long.numberOfTrailingZeros(cols)], allPossibilities);
+                }
+            }
+        }
+    }
+
+    // The hidden sets of setSize numbers, which can only go in setSize cells
+    // of a unit, so those cells can hold nothing else.
+    // Uses the positions findSymbolPositions worked out for the unit.
+    private void findHiddenSets(int[] unit, long missingSymbols, int setSize) {
+        // Bitmask of the symbols that could be part of a hidden set of this size
+        long candidates = 0;
+        for (long bits = missingSymbols; bits != 0; bits &= bits - 1) {
+            int symbol = Long.numberOfTrailingZeros(bits);
+            int positionCount = Long.bitCount(symbolPositions[symbol]);
+            if (positionCount != 0 && positionCount <= setSize) {
+                candidates |= 1L << symbol;
+            }
+        }
+        if (Long.bitCount(candidates) < setSize) {
+            return;
+        }
+        combinations.reset(candidates, setSize);
+        while (combinations.next()) {
+            long subsetSymbols = combinations.subset();
+            long positions = 0;
+            for (long bits = subsetSymbols; bits != 0; bits &= bits - 1) {
+                positions |= symbolPositions[Long.numberOfTrailingZeros(bits)];
+            }
+            if (Long.bitCount(positions) == setSize) {
+                for (long cols = positions; cols != 0; cols &= cols - 1) {
+                    eliminate(unit[Long.numberOfTrailingZeros(cols)], allSymbols & ~subsetSymbols);
+                }
+            }
+        }
+    }
+
+    // It is a generalization of the "X-Wing" logic to beyond 2 occurrences
+    // The algorithm is:
+    // For a given character c, find its possible col occurrences in every row
+    // if those occurrences lie within n cols for n rows
+    // the character c cannot occur in those cols on the remaining rows
+    // Repeat the algorithm in the transpose grid as well
+    // Of the m rows still missing c, the other m - n cols then have c only
+    // in the other m - n rows, the same wing in the transpose grid, so wings
+    // of up to m / 2 rows are enough.
+    private void findNXWing() {
+        while (nxWingDirtySymbols != 0) {
+            int symbol = Long.numberOfTrailingZeros(nxWingDirtySymbols);
+            nxWingDirtySymbols &= ~(1L << symbol);
+            updateUnitPositions();
+            // The rows of the symbol, then its cols, so the transpose is the same walk
+            for (int rowStart = 0; rowStart < gridSize * 2; rowStart += gridSize) {
+                int lines = symbol * unitCells.length + rowStart;
+                long openRows = 0;
+                for (int row = 0; row < gridSize; ++row) {
+                    if (unitPositions[lines + row] != 0) {
+                        openRows |= 1L << row;
+                    }
+                }
+                int maxRectSize = Math.min(maxSubsetSize, Long.bitCount(openRows) / 2);
+                for (int rectSize = 2; rectSize <= maxRectSize; ++rectSize) {
+                    long rowsContainingRecSize = 0;
+                    for (long rows = openRows; rows != 0; rows &= rows - 1) {
+                        int row = Long.numberOfTrailingZeros(rows);
+                        if (Long.bitCount(unitPositions[lines + row]) <= rectSize) {
+                            rowsContainingRecSize |= 1L << row;
+                        }
+                    }
+                    if (Long.bitCount(rowsContainingRecSize) >= rectSize) {
+                        findFish(symbol, rowStart, rowsContainingRecSize, 0, 0, rectSize);
+                    }
+                }
+            }
+        }
+    }
+
+    // Adds rows from candidates, lowest first, to the rows of a wing while
+    // the cols they take stay within rectSize, so a row that would spread
+    // the wing too wide cuts off every set of rows containing it.
+    // rowStart is 0 for the rows of the grid and gridSize for the transpose.
+    private void findFish(int symbol, int rowStart, long candidates, long rows, long cols, int rectSize) {
+        if (SolveStats.ENABLED) {
+            ++stats.combinations;
+        }
+        int missing = rectSize - Long.bitCount(rows);
+        if (missing == 0) {
+            if (Long.bitCount(cols) == rectSize) {
+                // The symbol goes in these cols on these rows, nowhere else in the cols
+                int colStart = gridSize - rowStart;
+                for (long bits = cols; bits != 0; bits &= bits - 1) {
+                    int col = colStart + Long.numberOfTrailingZeros(bits);
+                    int[] unit = unitCells[col];
+                    for (long others = unitPositions[symbol * unitCells.length + col] & ~rows;
+                            others != 0; others &= others - 1) {
+                        eliminate(unit[Long.numberOfTrailingZeros(others)], 1L << symbol);
+                    }
+                }
+            }
+            return;
+        }
+        for (long bits = candidates; Long.bitCount(bits) >= missing; bits &= bits - 1) {
+            int row = Long.numberOfTrailingZeros(bits);
+            long wingCols = cols | unitPositions[symbol * unitCells.length + rowStart + row];
+            if (Long.bitCount(wingCols) <= rectSize) {
+                findFish(symbol, rowStart, bits & (bits - 1), rows | (1L << row), wingCols, rectSize);
+            }
+        }
+    }
+
+    // Works out unitPositions again if the grid changed since the last time
+    private void updateUnitPositions() {
+        if (!unitPositionsStale) {
+            return;
+        }
+        unitPositionsStale = false;
+        Arrays.fill(unitPositions, 0);
+        int unitCount = unitCells.length;
+        for (int cell = 0; cell < grid.length; ++cell) {
+            int[] units = geometry.cellUnits[cell];
+            int[] positions = geometry.cellPositions[cell];
+            for (long bits = gridPossibilities[cell]; bits != 0; bits &= bits - 1) {
+                int symbolUnits = Long.numberOfTrailingZeros(bits) * unitCount;
+                unitPositions[symbolUnits + units[0]] |= 1L << positions[0];
+                unitPositions[symbolUnits + units[1]] |= 1L << positions[1];
+                unitPositions[symbolUnits + units[2]] |= 1L << positions[2];
+            }
+        }
+    }
+
+    // True if two cells share a unit
+    private boolean sees(int cell, int other) {
+        int[] units = geometry.cellUnits[cell];
+        int[] otherUnits = geometry.cellUnits[other];
+        return units[0] == otherUnits[0] || units[1] == otherUnits[1] || units[2] == otherUnits[2];
+    }
+
+    // A cell with the two possibilities xy, the pivot, sees a cell xz and a
+    // cell yz. Whichever of x and y the pivot gets, one of the two has to
+    // take z, so z can go in no cell that sees both of them.
+    private void findXYWing() {
+        if (!xyWingDirty) {
+            return;
+        }
+        xyWingDirty = false;
+        for (int pivot = 0; pivot < grid.length; ++pivot) {
+            long xy = gridPossibilities[pivot];
+            if (Long.bitCount(xy) != 2) {
+                continue;
+            }
+            // The peers with two possibilities, one of them shared with the pivot
+            int pincerCount = 0;
+            for (int peer : geometry.peers[pivot]) {
+                long possibilities = gridPossibilities[peer];
+                if (Long.bitCount(possibilities) == 2 && Long.bitCount(possibilities & xy) == 1) {
+                    pincers[pincerCount++] = peer;
+                }
+            }
+            for (int i = 1; i < pincerCount; ++i) {
+                long xz = gridPossibilities[pincers[i]];
+                for (int j = 0; j < i; ++j) {
+                    long yz = gridPossibilities[pincers[j]];
+                    if ((xz & xy) != (yz & xy) && (xz & ~xy) == (yz & ~xy)) {
+                        eliminateSeenByBoth(pincers[i], pincers[j], xz & ~xy);
+                    }
+                }
+            }
+        }
+    }
+
+    // A cell with the three possibilities xyz sees a cell xz and a cell yz.
+    // One of the three takes z, so z can go in no cell that sees all three.
+    private void findXYZWing() {
+        if (!xyzWingDirty) {
+            return;
+        }
+        xyzWingDirty = false;
+        for (int pivot = 0; pivot < grid.length; ++pivot) {
+            long xyz = gridPossibilities[pivot];
+            if (Long.bitCount(xyz) != 3) {
+                continue;
+            }
+            int[] peers = geometry.peers[pivot];
+            // The peers with two of the pivot's possibilities
+            int pincerCount = 0;
+            for (int peer : peers) {
+                long possibilities = gridPossibilities[peer];
+                if (Long.bitCount(possibilities) == 2 && (possibilities & ~xyz) == 0) {
+                    pincers[pincerCount++] = peer;
+                }
+            }
+            for (int i = 1; i < pincerCount; ++i) {
+                long xz = gridPossibilities[pincers[i]];
+                for (int j = 0; j < i; ++j) {
+                    long yz = gridPossibilities[pincers[j]];
+                    if (xz == yz) {
+                        continue;
+                    }
+                    long z = xz & yz;
+                    for (int cell : peers) {
+                        if ((gridPossibilities[cell] & z) != 0 && cell != pincers[i] && cell != pincers[j]
+                                && sees(cell, pincers[i]) && sees(cell, pincers[j])) {
+                            eliminate(cell, z);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    // Removes the symbols from the cells that see both cells, other than those two
+    private void eliminateSeenByBoth(int cell, int other, long symbolBits) {
+        for (int peer : geometry.peers[cell]) {
+            if ((gridPossibilities[peer] & symbolBits) != 0 && peer != other && sees(peer, other)) {
+                eliminate(peer, symbolBits);
+            }
+        }
+    }
+
+    // A new mark for chainMarks, telling the cells of this chain from older ones
+    private int nextChainMark() {
+        if (++chainMark == Integer.MAX_VALUE) {
+            Arrays.fill(chainMarks, 0);
+            Arrays.fill(chainHoldMarks, 0);
+            chainMark = 1;
+        }
+        return chainMark;
+    }
+
+    // The other place of a symbol in a unit where it has only two, -1 if it has more
+    private int conjugate(int symbol, int cell, int k) {
+        int unit = geometry.cellUnits[cell][k];
+        long positions = unitPositions[symbol * unitCells.length + unit];
+        if (Long.bitCount(positions) != 2) {
+            return -1;
+        }
+        return unitCells[unit][Long.numberOfTrailingZeros(positions & ~(1L << geometry.cellPositions[cell][k]))];
+    }
+
+    // Links the places of a symbol two at a time through the units where it
+    // has only those two places, one of the pair holds it and the other not,
+    // and colors each chain of links alternately. Either all the cells of
+    // one color hold the symbol or all of the other. So a color with two
+    // cells in a unit holds none, and a cell that sees both colors cannot.
+    private void findSimpleColoring() {
+        int unitCount = unitCells.length;
+        while (coloringDirtySymbols != 0) {
+            int symbol = Long.numberOfTrailingZeros(coloringDirtySymbols);
+            long valBit = 1L << symbol;
+            coloringDirtySymbols &= ~valBit;
+            updateUnitPositions();
+            int mark = nextChainMark();
+            for (int unit = 0; unit < unitCount; ++unit) {
+                long positions = unitPositions[symbol * unitCount + unit];
+                if (Long.bitCount(positions) != 2) {
+                    continue;
+                }
+                int start = unitCells[unit][Long.numberOfTrailingZeros(positions)];
+                if (chainMarks[start] != mark) {
+                    colorChain(symbol, start, mark);
+                }
+            }
+        }
+    }
+
+    // Colors the chain of a symbol through start, then applies what the colors show
+    private void colorChain(int symbol, int start, int mark) {
+        long valBit = 1L << symbol;
+        // Bit c of wrongColors is set when color c has two cells in a unit
+        int wrongColors = 0;
+        int length = 0;
+        chainMarks[start] = mark;
+        chainParities[start] = 0;
+        chainQueue[length++] = start;
+        for (int i = 0; i < length; ++i) {
+            int cell = chainQueue[i];
+            int color = chainParities[cell];
+            for (int k = 0; k < 3; ++k) {
+                int unit = geometry.cellUnits[cell][k];
+                wrongColors |= unitColors[unit] & (1 << color);
+                unitColors[unit] |= 1 << color;
+                int linked = conjugate(symbol, cell, k);
+                if (linked >= 0 && chainMarks[linked] != mark) {
+                    chainMarks[linked] = mark;
+                    chainParities[linked] = color ^ 1;
+                    chainQueue[length++] = linked;
+                }
+            }
+        }
+        if (wrongColors != 0) {
+            for (int i = 0; i < length; ++i) {
+                int cell = chainQueue[i];
+                if ((wrongColors & (1 << chainParities[cell])) != 0) {
+                    eliminate(cell, valBit);
+                }
+            }
+        } else {
+            for (int cell = 0; cell < grid.length; ++cell) {
+                if ((gridPossibilities[cell] & valBit) == 0 || chainMarks[cell] == mark) {
+                    continue;
+                }
+                int[] units = geometry.cellUnits[cell];
+                if ((unitColors[units[0]] | unitColors[units[1]] | unitColors[units[2]]) == 3) {
+                    eliminate(cell, valBit);
+                }
+            }
+        }
+        for (int i = 0; i < length; ++i) {
+            for (int unit : geometry.cellUnits[chainQueue[i]]) {
+                unitColors[unit] = 0;
+            }
+        }
+    }
+
+    // Supposing a place of a symbol does not hold it, follows what that
+    // implies: where the symbol has only two places in a unit the other one
+    // holds it, and then no other place in its units does, and so on. Any
+    // place reached that way holds the symbol if the start does not, so a
+    // cell that sees both of them cannot hold it. That is every X-chain
+    // from the start, breadth first so each place is reached by the shortest.
+    private void findXChain() {
+        int unitCount = unitCells.length;
+        while (xChainDirtySymbols != 0) {
+            int symbol = Long.numberOfTrailingZeros(xChainDirtySymbols);
+            long valBit = 1L << symbol;
+            xChainDirtySymbols &= ~valBit;
+            updateUnitPositions();
+            for (int start = 0; start < grid.length; ++start) {
+                if ((gridPossibilities[start] & valBit) == 0) {
+                    continue;
+                }
+                int[] units = geometry.cellUnits[start];
+                if (Long.bitCount(unitPositions[symbol * unitCount + units[0]]) != 2
+                        && Long.bitCount(unitPositions[symbol * unitCount + units[1]]) != 2
+                        && Long.bitCount(unitPositions[symbol * unitCount + units[2]]) != 2) {
+                    continue;
+                }
+                followXChain(symbol, start);
+            }
+        }
+    }
+
+    private void followXChain(int symbol, int start) {
+        long valBit = 1L << symbol;
+        int unitCount = unitCells.length;
+        int mark = nextChainMark();
+        // The peers of the start that could lose the symbol
+        int peerCount = 0;
+        for (int peer : geometry.peers[start]) {
+            if ((gridPossibilities[peer] & valBit) != 0) {
+                pincers[peerCount++] = peer;
+            }
+        }
+        // The queue holds cell * 2, plus 1 for a cell reached holding the symbol
+        int length = 0;
+        chainMarks[start] = mark;
+        chainQueue[length++] = start * 2;
+        for (int next = 0; next < length; ++next) {
+            int cell = chainQueue[next] >> 1;
+            if ((chainQueue[next] & 1) == 0) {
+                // Without the symbol here, the other place of a unit with two holds it
+                for (int k = 0; k < 3; ++k) {
+                    int linked = conjugate(symbol, cell, k);
+                    if (linked >= 0 && chainHoldMarks[linked] != mark) {
+                        chainHoldMarks[linked] = mark;
+                        chainQueue[length++] = linked * 2 + 1;
+                    }
+                }
+            } else {
+                // The start or this cell holds the symbol, and no other place in its units does
+                for (int i = 0; i < peerCount; ++i) {
+                    int peer = pincers[i];
+                    if (peer != cell && sees(peer, cell)) {
+                        eliminate(peer, valBit);
+                    }
+                }
+                for (int k = 0; k < 3; ++k) {
+                    int unit = geometry.cellUnits[cell][k];
+                    int[] members = unitCells[unit];
+                    for (long others = unitPositions[symbol * unitCount + unit] & ~(1L << geometry.cellPositions[cell][k]);
+                            others != 0; others &= others - 1) {
+                        int other = members[Long.numberOfTrailingZeros(others)];
+                        if (chainMarks[other] != mark) {
+                            chainMarks[other] = mark;
+                            chainQueue[length++] = other * 2;
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
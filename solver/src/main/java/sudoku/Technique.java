@@ -0,0 +1,31 @@
+package sudoku;
+
+// The ways SudokuSolver makes progress, from the simplest to the hardest
+public enum Technique {
+    // A cell with only one possibility left
+    SINGLE,
+    // A symbol with only one place left in a unit
+    HIDDEN_SINGLE,
+    // A symbol confined to one row or col of a block
+    BLOCK_RESTRICTION,
+    // 2 or 3 symbols with only as many places left in a unit
+    HIDDEN_SET,
+    // n cells of a unit sharing n possibilities
+    CLOSED_SET,
+    // A symbol confined to n cols in n rows, or the transpose: X-wing,
+    // swordfish, jellyfish and so on
+    NX_WING,
+    // A cell with 2 possibilities xy seeing cells xz and yz: z goes in one
+    // of those two
+    XY_WING,
+    // The same with xyz in the middle cell, which also sees the cells that lose z
+    XYZ_WING,
+    // The places of a symbol linked in pairs by the units it has only two
+    // places in, each chain colored alternately: one color holds the symbol
+    SIMPLE_COLORING,
+    // Chains of places of a symbol alternating between a unit where it has
+    // only those two places and any unit: one of the two ends holds it
+    X_CHAIN,
+    // Backtracking search
+    GUESSING
+}
@@ -0,0 +1,217 @@
+package sudoku;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class CanonicalFormTest {
+    private static final int SIZE = 9;
+
+    // The cell of the puzzle each cell of the transformed puzzle comes from
+    private interface Transform {
+        int sourceOf(int row, int col);
+    }
+
+    private static String apply(String puzzle, Transform transform) {
+        char[] line = new char[SIZE * SIZE];
+        for (int row = 0; row < SIZE; ++row) {
+            for (int col = 0; col < SIZE; ++col) {
+                line[row * SIZE + col] = puzzle.charAt(transform.sourceOf(row, col));
+            }
+        }
+        return new String(line);
+    }
+
+    private static String transpose(String puzzle) {
+        return apply(puzzle, (row, col) -> col * SIZE + row);
+    }
+
+    // A quarter turn clockwise
+    private static String rotate(String puzzle) {
+        return apply(puzzle, (row, col) -> (SIZE - 1 - col) * SIZE + row);
+    }
+
+    // Rows and cols from the given orders, which keep the bands and stacks together
+    private static String permute(String puzzle, int[] rowOrder, int[] colOrder) {
+        return apply(puzzle, (row, col) -> rowOrder[row] * SIZE + colOrder[col]);
+    }
+
+    // A random order of the bands, and of the rows within each band
+    private static int[] lineOrder(Random random) {
+        int[] bands = shuffled(3, random);
+        int[] order = new int[SIZE];
+        for (int band = 0; band < 3; ++band) {
+            int[] rows = shuffled(3, random);
+            for (int i = 0; i < 3; ++i) {
+                order[band * 3 + i] = bands[band] * 3 + rows[i];
+            }
+        }
+        return order;
+    }
+
+    private static int[] shuffled(int n, Random random) {
+        int[] a = new int[n];
+        for (int i = 0; i < n; ++i) {
+            a[i] = i;
+        }
+        for (int i = n - 1; i > 0; --i) {
+            int j = random.nextInt(i + 1);
+            int t = a[i];
+            a[i] = a[j];
+            a[j] = t;
+        }
+        return a;
+    }
+
+    private static String relabel(String puzzle, int[] labels, int gridSize) {
+        char[] alphabet = SudokuSolver.alphabet(gridSize);
+        char[] line = puzzle.toCharArray();
+        for (int cell = 0; cell < line.length; ++cell) {
+            int value = SudokuSolver.indexOfSymbol(line[cell], gridSize);
+            if (value >= 0) {
+                line[cell] = alphabet[labels[value]];
+            }
+        }
+        return new String(line);
+    }
+
+    // Any mix of the symmetries at random, the same every run
+    private static String scramble(String puzzle, Random random) {
+        String scrambled = permute(puzzle, lineOrder(random), lineOrder(random));
+        scrambled = relabel(scrambled, shuffled(SIZE, random), SIZE);
+        if (random.nextBoolean()) {
+            scrambled = transpose(scrambled);
+        }
+        for (int turns = random.nextInt(4); turns > 0; --turns) {
+            scrambled = rotate(scrambled);
+        }
+        return scrambled;
+    }
+
+    // Only minimal forms are the same for equivalent puzzles. The search
+    // may give up on the very symmetric patterns of the pathological set.
+    private static boolean mayGiveUp(String corpus) {
+        return corpus.equals("pathological");
+    }
+
+    private static void assertSameKey(String puzzle, String equivalent, boolean mayGiveUp) {
+        CanonicalForm form = CanonicalForm.of(puzzle);
+        CanonicalForm other = CanonicalForm.of(equivalent);
+        if (mayGiveUp && !(form.isMinimal() && other.isMinimal())) {
+            return;
+        }
+        assertTrue(form.isMinimal(), puzzle);
+        assertTrue(other.isMinimal(), equivalent);
+        assertEquals(form.key(), other.key(), puzzle + " and " + equivalent);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"easy", "hard", "seventeen", "pathological"})
+    void eachSymmetryKeepsTheKey(String corpus) {
+        Random random = new Random(corpus.hashCode());
+        boolean mayGiveUp = mayGiveUp(corpus);
+        for (String puzzle : Corpora.load(corpus)) {
+            assertSameKey(puzzle, relabel(puzzle, shuffled(SIZE, random), SIZE), mayGiveUp);
+            assertSameKey(puzzle, transpose(puzzle), mayGiveUp);
+            assertSameKey(puzzle, rotate(puzzle), mayGiveUp);
+            assertSameKey(puzzle, rotate(rotate(puzzle)), mayGiveUp);
+            assertSameKey(puzzle, permute(puzzle, lineOrder(random), lineOrder(random)), mayGiveUp);
+            assertSameKey(puzzle, scramble(puzzle, random), mayGiveUp);
+        }
+    }
+
+    // Relabeling alone keeps even a form that is not minimal
+    @Test
+    void relabelingKeepsTheKeyOfEveryForm() {
+        Random random = new Random(1);
+        for (String puzzle : Corpora.load("pathological")) {
+            String relabeled = relabel(puzzle, shuffled(SIZE, random), SIZE);
+            assertEquals(CanonicalForm.of(puzzle).key(), CanonicalForm.of(relabeled).key(), puzzle);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"easy", "hard", "seventeen", "pathological"})
+    void solutionsGoThereAndBack(String corpus) {
+        Random random = new Random(corpus.hashCode());
+        for (String puzzle : Corpora.load(corpus)) {
+            String solution = Corpora.solveWithDancingLinks(puzzle);
+            CanonicalForm form = CanonicalForm.of(puzzle);
+            assertEquals(form.key(), form.toCanonical(puzzle), puzzle);
+            String canonicalSolution = form.toCanonical(solution);
+            assertEquals(solution, form.fromCanonical(canonicalSolution), puzzle);
+            assertTrue(Corpora.isSolutionOf(canonicalSolution, form.key()), puzzle);
+
+            // The canonical solution of an equivalent puzzle solves this one too
+            String scrambled = scramble(puzzle, random);
+            CanonicalForm other = CanonicalForm.of(scrambled);
+            if (!(form.isMinimal() && other.isMinimal())) {
+                assertTrue(mayGiveUp(corpus), puzzle);
+                continue;
+            }
+            String back = other.fromCanonical(canonicalSolution);
+            assertEquals(Corpora.solveWithDancingLinks(scrambled), back, scrambled);
+        }
+    }
+
+    // Different puzzles do not share a key
+    @Test
+    void distinctPuzzlesGetDistinctKeys() {
+        List<String> puzzles = Corpora.load("hard");
+        for (int i = 0; i < puzzles.size(); ++i) {
+            for (int j = i + 1; j < puzzles.size(); ++j) {
+                assertFalse(CanonicalForm.of(puzzles.get(i)).key().equals(CanonicalForm.of(puzzles.get(j)).key()),
+                        puzzles.get(i) + " and " + puzzles.get(j));
+            }
+        }
+    }
+
+    // Sizes other than 9x9 are only relabeled
+    @Test
+    void sixteenBySixteenKeepsTheKeyUnderRelabeling() {
+        Random random = new Random(16);
+        for (String puzzle : Corpora.load("sixteen")) {
+            CanonicalForm form = CanonicalForm.of(puzzle);
+            assertFalse(form.isMinimal());
+            String relabeled = relabel(puzzle, shuffled(16, random), 16);
+            assertEquals(form.key(), CanonicalForm.of(relabeled).key(), puzzle);
+            String solution = Corpora.solveWithDancingLinks(puzzle);
+            assertEquals(solution, form.fromCanonical(form.toCanonical(solution)), puzzle);
+        }
+    }
+
+    // An empty grid has every symmetry, past the search budget the form is only relabeled
+    @Test
+    void symmetricPatternFallsBackToRelabeling() {
+        String empty = ".".repeat(SIZE * SIZE);
+        CanonicalForm form = CanonicalForm.of(empty);
+        assertNotNull(form);
+        assertFalse(form.isMinimal());
+        assertEquals(empty, form.key());
+    }
+
+    @Test
+    void noFormForWhatIsNoPuzzle() {
+        String puzzle = Corpora.load("hard").get(0);
+        assertNull(CanonicalForm.of(puzzle.substring(0, 80)));
+        assertNull(CanonicalForm.of(puzzle.substring(0, 80) + "x"));
+        int given = 0;
+        while (puzzle.charAt(given) == '.') {
+            ++given;
+        }
+        // The same digit again in the next cell of the row, or the one before
+        int other = given % SIZE == SIZE - 1 ? given - 1 : given + 1;
+        char[] clash = puzzle.toCharArray();
+        clash[other] = clash[given];
+        assertNull(CanonicalForm.of(new String(clash)));
+    }
+}
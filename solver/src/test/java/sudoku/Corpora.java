@@ -0,0 +1,83 @@
+package sudoku;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// The puzzle sets bundled with the benchmarks, one puzzle per line, and
+// checks of the grids the solvers give back
+final class Corpora {
+    static final String[] NAMES = {"easy", "hard", "seventeen", "sixteen", "pathological"};
+
+    private Corpora() {
+    }
+
+    static List<String> load(String name) {
+        InputStream in = Corpora.class.getResourceAsStream(name + ".txt");
+        if (in == null) {
+            throw new IllegalArgumentException("no corpus named " + name);
+        }
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.US_ASCII))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.trim().isEmpty()) {
+                    lines.add(line.trim());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return lines;
+    }
+
+    // Every puzzle of every set
+    static List<String> loadAll() {
+        List<String> puzzles = new ArrayList<>();
+        for (String name : NAMES) {
+            puzzles.addAll(load(name));
+        }
+        return puzzles;
+    }
+
+    // The one solution of a puzzle, found by the exact cover solver
+    static String solveWithDancingLinks(String puzzle) {
+        DancingLinksSolver solver = new DancingLinksSolver(SudokuSolver.parseLine(puzzle));
+        if (!solver.solve()) {
+            throw new AssertionError("no solution for " + puzzle);
+        }
+        return solver.getSolution();
+    }
+
+    // True when grid fills every cell of the puzzle, keeps its givens and
+    // has each symbol once in every row, col and block
+    static boolean isSolutionOf(String grid, String puzzle) {
+        int gridSize = SudokuSolver.gridSizeOf(puzzle.length());
+        if (grid.length() != gridSize * gridSize) {
+            return false;
+        }
+        GridGeometry geometry = GridGeometry.forSize(gridSize);
+        for (int cell = 0; cell < grid.length(); ++cell) {
+            char given = puzzle.charAt(cell);
+            if (SudokuSolver.indexOfSymbol(given, gridSize) >= 0 && grid.charAt(cell) != given) {
+                return false;
+            }
+        }
+        for (int[] unit : geometry.unitCells) {
+            long seen = 0;
+            for (int cell : unit) {
+                int symbol = SudokuSolver.indexOfSymbol(grid.charAt(cell), gridSize);
+                if (symbol < 0 || (seen & (1L << symbol)) != 0) {
+                    return false;
+                }
+                seen |= 1L << symbol;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,164 @@
+package sudoku;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class DancingLinksSolverTest {
+    private static DancingLinksSolver dancingLinks(String puzzle) {
+        return new DancingLinksSolver(SudokuSolver.parseLine(puzzle));
+    }
+
+    private static SudokuSolver techniques(String puzzle) {
+        SudokuSolver solver = new SudokuSolver(SudokuSolver.gridSizeOf(puzzle.length()));
+        solver.setGuessingAllowed(true);
+        solver.load(puzzle);
+        return solver;
+    }
+
+    private static List<String> generated(int gridSize, int count) {
+        PuzzleGenerator generator = new PuzzleGenerator(new SplittableRandom(gridSize), gridSize);
+        List<String> puzzles = new ArrayList<>();
+        for (int i = 0; i < count; ++i) {
+            puzzles.add(generator.generatePuzzle());
+        }
+        return puzzles;
+    }
+
+    // The puzzle with each given kept with the odds given, the rest emptied
+    private static String thinned(String grid, SplittableRandom random, double keep) {
+        char[] cells = grid.toCharArray();
+        for (int cell = 0; cell < cells.length; ++cell) {
+            if (random.nextDouble() >= keep) {
+                cells[cell] = '.';
+            }
+        }
+        return new String(cells);
+    }
+
+    // Every filled 4x4 grid, which pins down the exact cover matrix: one
+    // column missing or wrong and the count is off
+    @Test
+    void emptyFourByFourHasAllItsGrids() {
+        assertEquals(288, dancingLinks(".".repeat(16)).countSolutions(1000));
+        // Fixing the first row leaves one grid in 4! of them
+        assertEquals(12, dancingLinks("1234" + ".".repeat(12)).countSolutions(1000));
+    }
+
+    @Test
+    void agreesWithSudokuSolverOnFourByFour() {
+        for (String puzzle : generated(4, 50)) {
+            DancingLinksSolver solver = dancingLinks(puzzle);
+            assertTrue(solver.solve(), puzzle);
+            SudokuSolver other = techniques(puzzle);
+            assertTrue(other.solve(), puzzle);
+            assertEquals(other.getSolution(), solver.getSolution(), puzzle);
+            assertTrue(Corpora.isSolutionOf(solver.getSolution(), puzzle), puzzle);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"easy", "hard", "seventeen", "sixteen", "pathological"})
+    void agreesWithSudokuSolverOnTheCorpora(String corpus) {
+        for (String puzzle : Corpora.load(corpus)) {
+            DancingLinksSolver solver = dancingLinks(puzzle);
+            assertFalse(solver.hasConflictingValues(), puzzle);
+            assertEquals(1, solver.countSolutions(2), puzzle);
+            SudokuSolver other = techniques(puzzle);
+            assertTrue(other.solve(), puzzle);
+            assertEquals(other.getSolution(), solver.getSolution(), puzzle);
+            assertTrue(Corpora.isSolutionOf(solver.getSolution(), puzzle), puzzle);
+        }
+    }
+
+    // Grids with few givens left have many solutions, both solvers must
+    // count as many of them and stop at the same limit
+    @ParameterizedTest
+    @ValueSource(ints = {4, 9})
+    void countsMultipleSolutionsLikeSudokuSolver(int gridSize) {
+        SplittableRandom random = new SplittableRandom(gridSize);
+        List<String> grids = gridSize == 4 ? generated(4, 10) : Corpora.load("easy").subList(0, 10);
+        int limit = 50;
+        for (String puzzle : grids) {
+            String grid = Corpora.solveWithDancingLinks(puzzle);
+            for (double keep : new double[] {0.2, 0.35, 0.5}) {
+                String open = thinned(grid, random, keep);
+                int count = dancingLinks(open).countSolutions(limit);
+                SolutionCount other = techniques(open).countSolutions(limit);
+                assertEquals(other.getCount(), count, open);
+                assertTrue(count >= 1, open);
+                DancingLinksSolver solver = dancingLinks(open);
+                assertTrue(solver.solve(), open);
+                assertTrue(Corpora.isSolutionOf(solver.getSolution(), open), open);
+            }
+        }
+    }
+
+    // The search undoes every cover, so the matrix is whole again for the next count
+    @Test
+    void countsTheSameTwice() {
+        DancingLinksSolver solver = dancingLinks("12" + ".".repeat(14));
+        int first = solver.countSolutions(1000);
+        assertEquals(first, solver.countSolutions(1000));
+        assertEquals(3, solver.countSolutions(3));
+        assertEquals(first, solver.countSolutions(1000));
+    }
+
+    @Test
+    void conflictingGivensHaveNoSolution() {
+        String puzzle = Corpora.load("hard").get(0);
+        int given = 0;
+        while (puzzle.charAt(given) == '.') {
+            ++given;
+        }
+        int row = given / 9;
+        int col = given % 9;
+        char value = puzzle.charAt(given);
+        // The same value again in the row, the col and the block of the given
+        int[] clashes = {row * 9 + (col + 3) % 9, (row + 3) % 9 * 9 + col,
+            row / 3 * 27 + (row + 1) % 3 * 9 + col / 3 * 3 + (col + 1) % 3};
+        for (int clash : clashes) {
+            char[] cells = puzzle.toCharArray();
+            cells[clash] = value;
+            String conflicting = new String(cells);
+            DancingLinksSolver solver = dancingLinks(conflicting);
+            assertTrue(solver.hasConflictingValues(), conflicting);
+            assertFalse(solver.solve(), conflicting);
+            assertEquals(0, solver.countSolutions(2), conflicting);
+            assertTrue(techniques(conflicting).hasConflictingValues(), conflicting);
+            assertEquals(SolveResult.Status.INVALID, Sudoku.solve(conflicting, SolveMode.DANCING_LINKS).getStatus());
+        }
+        String sixteen = Corpora.load("sixteen").get(0);
+        int first = 0;
+        while (sixteen.charAt(first) == '.') {
+            ++first;
+        }
+        char[] cells = sixteen.toCharArray();
+        cells[first / 16 * 16 + (first + 8) % 16] = sixteen.charAt(first);
+        assertTrue(dancingLinks(new String(cells)).hasConflictingValues());
+    }
+
+    // Givens that do not clash but leave a cell with no value
+    @Test
+    void contradictionHasNoSolution() {
+        String[] puzzles = {
+            "." + "12345678" + "9" + ".".repeat(71),
+            ".23." + "41.." + ".".repeat(8),
+        };
+        for (String puzzle : puzzles) {
+            DancingLinksSolver solver = dancingLinks(puzzle);
+            assertFalse(solver.hasConflictingValues(), puzzle);
+            assertFalse(solver.solve(), puzzle);
+            assertEquals(0, solver.countSolutions(2), puzzle);
+            assertEquals(0, techniques(puzzle).countSolutions(2).getCount(), puzzle);
+        }
+    }
+}
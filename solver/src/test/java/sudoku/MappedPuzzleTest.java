@@ -0,0 +1,193 @@
+package sudoku;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+// MappedPuzzleReader, MappedPuzzleWriter and PackedPuzzles on windows of
+// a few dozen bytes, so puzzles cross window boundaries all the time
+class MappedPuzzleTest {
+    @TempDir
+    Path dir;
+
+    private static List<String> readAll(Path path, boolean packed, int windowSize) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (MappedPuzzleReader reader = new MappedPuzzleReader(path, packed, windowSize)) {
+            while (reader.next()) {
+                lines.add(reader.line());
+            }
+        }
+        return lines;
+    }
+
+    private static void writeAll(Path path, boolean packed, int windowSize, List<String> puzzles)
+            throws IOException {
+        try (MappedPuzzleWriter writer = new MappedPuzzleWriter(path, packed, windowSize)) {
+            for (String puzzle : puzzles) {
+                writer.write(puzzle.toCharArray(), puzzle.length());
+            }
+        }
+    }
+
+    // The window sizes take in a line and its newline exactly or one byte
+    // over, and windows that split every line
+    @ParameterizedTest
+    @ValueSource(ints = {82, 83, 100, 163, 164, 1 << 26})
+    void textGoesThroughAnyWindow(int windowSize) throws IOException {
+        List<String> puzzles = Corpora.load("hard");
+        Path path = dir.resolve("hard.txt");
+        writeAll(path, false, windowSize, puzzles);
+        assertEquals(82L * puzzles.size(), Files.size(path));
+        assertEquals(puzzles, Files.readAllLines(path, StandardCharsets.US_ASCII));
+        assertEquals(puzzles, readAll(path, false, windowSize));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {41, 42, 50, 82, 1 << 26})
+    void packedGoesThroughAnyWindow(int windowSize) throws IOException {
+        List<String> puzzles = new ArrayList<>(Corpora.load("hard"));
+        puzzles.addAll(Corpora.load("seventeen"));
+        Path path = dir.resolve("hard.bin");
+        writeAll(path, true, windowSize, puzzles);
+        assertEquals((long) PackedPuzzles.RECORD_SIZE * puzzles.size(), Files.size(path));
+        List<String> read = readAll(path, true, windowSize);
+        assertEquals(puzzles.size(), read.size());
+        for (int i = 0; i < puzzles.size(); ++i) {
+            assertEquals(puzzles.get(i).replace('0', '.'), read.get(i));
+        }
+    }
+
+    // Lines that cross a window are loaded from the window they were mapped again into
+    @Test
+    void loadsStraddlingPuzzlesIntoASolver() throws IOException {
+        List<String> puzzles = Corpora.load("easy");
+        for (boolean packed : new boolean[] {false, true}) {
+            Path path = dir.resolve(packed ? "easy.bin" : "easy.txt");
+            writeAll(path, packed, 100, puzzles);
+            SudokuSolver solver = new SudokuSolver(9);
+            solver.setGuessingAllowed(true);
+            int i = 0;
+            try (MappedPuzzleReader reader = new MappedPuzzleReader(path, packed, 100)) {
+                while (reader.next()) {
+                    assertEquals(9, reader.gridSize());
+                    reader.loadInto(solver);
+                    assertTrue(solver.solve());
+                    assertEquals(Corpora.solveWithDancingLinks(puzzles.get(i)), solver.getSolution());
+                    ++i;
+                }
+            }
+            assertEquals(puzzles.size(), i);
+        }
+    }
+
+    @Test
+    void skipsBlankLinesCommentsAndWhiteSpace() throws IOException {
+        List<String> puzzles = Corpora.load("easy").subList(0, 3);
+        String text = "# a comment that is longer than the window of sixty-four bytes, by some way\n"
+                + "\n   \n" + puzzles.get(0) + "\r\n  \t" + puzzles.get(1) + "  \n\n# the last one has no newline\n"
+                + puzzles.get(2);
+        Path path = dir.resolve("mixed.txt");
+        Files.write(path, text.getBytes(StandardCharsets.US_ASCII));
+        for (int windowSize : new int[] {96, 97, 128, 1 << 26}) {
+            assertEquals(puzzles, readAll(path, false, windowSize), "window " + windowSize);
+        }
+    }
+
+    // Only white space around a puzzle is dropped
+    @Test
+    void lineOfTheWrongLengthDoesNotLoad() throws IOException {
+        String puzzle = Corpora.load("easy").get(0);
+        Path path = dir.resolve("long.txt");
+        Files.write(path, (puzzle + "\t9\n" + puzzle.substring(1) + "\n").getBytes(StandardCharsets.US_ASCII));
+        SudokuSolver solver = new SudokuSolver(9);
+        try (MappedPuzzleReader reader = new MappedPuzzleReader(path, false, 128)) {
+            for (int i = 0; i < 2; ++i) {
+                assertTrue(reader.next());
+                assertThrows(IllegalArgumentException.class, reader::gridSize);
+                assertThrows(IllegalArgumentException.class, () -> reader.loadInto(solver));
+            }
+        }
+    }
+
+    @Test
+    void emptyFileHasNoPuzzles() throws IOException {
+        Path path = dir.resolve("empty.txt");
+        Files.createFile(path);
+        assertTrue(readAll(path, false, 64).isEmpty());
+        assertTrue(readAll(path, true, 64).isEmpty());
+    }
+
+    @Test
+    void lineLongerThanTheWindowFails() throws IOException {
+        Path path = dir.resolve("long.txt");
+        writeAll(path, false, 200, Corpora.load("easy").subList(0, 2));
+        assertThrows(IOException.class, () -> readAll(path, false, 64));
+        // The newline has to fit in the window too
+        assertThrows(IOException.class, () -> readAll(path, false, 81));
+        assertThrows(IOException.class, () -> writeAll(dir.resolve("out.txt"), false, 81, Corpora.load("easy")));
+    }
+
+    @Test
+    void packedFileCutInAPuzzleFails() throws IOException {
+        Path path = dir.resolve("cut.bin");
+        writeAll(path, true, 64, Corpora.load("easy").subList(0, 2));
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IOException.class, () -> readAll(path, true, 64));
+    }
+
+    @Test
+    void packsIntoFortyOneBytes() {
+        String puzzle = Corpora.load("hard").get(0);
+        ByteBuffer buffer = ByteBuffer.allocate(3 + PackedPuzzles.RECORD_SIZE + 3);
+        PackedPuzzles.pack(puzzle.toCharArray(), puzzle.length(), buffer, 3);
+        assertEquals(41, PackedPuzzles.RECORD_SIZE);
+        assertEquals(0, buffer.get(2));
+        assertEquals(0, buffer.get(3 + PackedPuzzles.RECORD_SIZE));
+        // The odd cell count leaves the high half of the last byte 0
+        assertEquals(0, buffer.get(3 + PackedPuzzles.RECORD_SIZE - 1) & 0xf0);
+        for (int cell = 0; cell < PackedPuzzles.CELL_COUNT; ++cell) {
+            assertEquals(PackedPuzzles.valueOf(puzzle.charAt(cell)), PackedPuzzles.valueAt(buffer, 3, cell));
+        }
+        char[] cells = new char[PackedPuzzles.CELL_COUNT];
+        PackedPuzzles.unpack(buffer, 3, cells);
+        assertArrayEquals(puzzle.replace('0', '.').toCharArray(), cells);
+
+        SudokuSolver solver = new SudokuSolver(9);
+        solver.loadPacked(buffer, 3);
+        solver.load(puzzle);
+        String loaded = solver.getSolution();
+        solver.loadPacked(buffer, 3);
+        assertEquals(loaded, solver.getSolution());
+    }
+
+    @Test
+    void packRejectsWhatItCannotHold() {
+        String puzzle = Corpora.load("hard").get(0);
+        ByteBuffer buffer = ByteBuffer.allocate(PackedPuzzles.RECORD_SIZE);
+        char[] cells = puzzle.toCharArray();
+        cells[80] = 'A';
+        assertThrows(IllegalArgumentException.class, () -> PackedPuzzles.pack(cells, cells.length, buffer, 0));
+        // Validated before anything is written
+        assertArrayEquals(new byte[PackedPuzzles.RECORD_SIZE], buffer.array());
+        char[] sixteen = Corpora.load("sixteen").get(0).toCharArray();
+        assertThrows(IllegalArgumentException.class, () -> PackedPuzzles.pack(sixteen, sixteen.length, buffer, 0));
+        SudokuSolver solver = new SudokuSolver(16);
+        assertThrows(IllegalArgumentException.class, () -> solver.loadPacked(buffer, 0));
+    }
+}
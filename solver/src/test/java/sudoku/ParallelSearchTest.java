@@ -0,0 +1,71 @@
+package sudoku;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ParallelSearchTest {
+    // More workers than this box may have cores, so the tasks do split
+    private static ForkJoinPool pool;
+    private static ParallelSearch search;
+
+    @BeforeAll
+    static void startPool() {
+        pool = new ForkJoinPool(4);
+        search = new ParallelSearch(pool);
+    }
+
+    @AfterAll
+    static void stopPool() {
+        pool.shutdown();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"hard", "sixteen", "pathological"})
+    void findsTheSolutionOfDancingLinks(String corpus) {
+        SudokuSolver solver = null;
+        for (String puzzle : Corpora.load(corpus)) {
+            if (solver == null) {
+                solver = new SudokuSolver(SudokuSolver.gridSizeOf(puzzle.length()));
+            }
+            solver.load(puzzle);
+            assertTrue(search.solve(solver), puzzle);
+            assertEquals(Corpora.solveWithDancingLinks(puzzle), solver.getSolution(), puzzle);
+        }
+    }
+
+    // The search turns guessing off for the techniques, and back after
+    @Test
+    void leavesGuessingAsItWas() {
+        String hard = Corpora.load("hard").get(0);
+        String easy = Corpora.load("easy").get(0);
+        for (boolean allowGuess : new boolean[] {false, true}) {
+            for (String puzzle : new String[] {hard, easy}) {
+                SudokuSolver solver = new SudokuSolver(9);
+                solver.setGuessingAllowed(allowGuess);
+                solver.load(puzzle);
+                assertTrue(search.solve(solver), puzzle);
+                assertEquals(allowGuess, solver.isGuessingAllowed(), puzzle);
+            }
+        }
+    }
+
+    @Test
+    void noSolutionIsNoSolution() {
+        // Two givens that do not clash, but leave the first cell no value
+        String puzzle = "." + "12345678" + "9" + ".".repeat(71);
+        SudokuSolver solver = new SudokuSolver(9);
+        solver.setGuessingAllowed(true);
+        solver.load(puzzle);
+        assertFalse(search.solve(solver));
+        assertTrue(solver.isGuessingAllowed());
+    }
+}
@@ -0,0 +1,44 @@
+package sudoku;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class PuzzleGeneratorTest {
+    // Every puzzle has one solution and loses it with any clue taken out
+    @ParameterizedTest
+    @ValueSource(ints = {4, 9})
+    void puzzlesAreUniqueAndMinimal(int gridSize) {
+        PuzzleGenerator generator = new PuzzleGenerator(new SplittableRandom(gridSize), gridSize);
+        SudokuSolver solver = new SudokuSolver(gridSize);
+        for (int i = 0; i < (gridSize == 4 ? 200 : 10); ++i) {
+            String puzzle = generator.generatePuzzle();
+            solver.load(puzzle);
+            assertEquals(1, solver.countSolutions(2).getCount(), puzzle);
+            char[] cells = puzzle.toCharArray();
+            for (int cell = 0; cell < cells.length; ++cell) {
+                char clue = cells[cell];
+                if (clue != '.') {
+                    cells[cell] = '.';
+                    solver.load(cells);
+                    assertEquals(2, solver.countSolutions(2).getCount(), puzzle + " without cell " + cell);
+                    cells[cell] = clue;
+                }
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {4, 9, 16})
+    void solutionsAreFullGrids(int gridSize) {
+        PuzzleGenerator generator = new PuzzleGenerator(new SplittableRandom(gridSize), gridSize);
+        for (int i = 0; i < (gridSize == 16 ? 5 : 100); ++i) {
+            String grid = generator.generateSolution();
+            assertTrue(Corpora.isSolutionOf(grid, grid), grid);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package sudoku;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class SolutionCacheTest {
+    private final List<String> hard = Corpora.load("hard");
+
+    // The bytes one 9x9 entry counts for
+    private static long entryBytes(String puzzle) {
+        SolutionCache cache = new SolutionCache(Long.MAX_VALUE);
+        cache.solve(puzzle, SolveMode.GUESS);
+        return cache.getBytes();
+    }
+
+    private static String transpose(String puzzle) {
+        char[] line = new char[81];
+        for (int cell = 0; cell < 81; ++cell) {
+            line[cell] = puzzle.charAt(cell % 9 * 9 + cell / 9);
+        }
+        return new String(line);
+    }
+
+    @Test
+    void equivalentPuzzleIsAHit() {
+        SolutionCache cache = new SolutionCache(1 << 20);
+        String puzzle = hard.get(0);
+        String transposed = transpose(puzzle);
+        assertEquals(Corpora.solveWithDancingLinks(puzzle), cache.solve(puzzle, SolveMode.GUESS).getSolution());
+        SolveResult hit = cache.solve(transposed, SolveMode.GUESS);
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertNull(hit.getStats());
+        assertEquals(Corpora.solveWithDancingLinks(transposed), hit.getSolution());
+        assertEquals(Technique.GUESSING, hit.getHardestTechnique());
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedPastTheBudget() {
+        long bytes = entryBytes(hard.get(0));
+        assertTrue(bytes > 2 * 81);
+        SolutionCache cache = new SolutionCache(3 * bytes);
+        String a = hard.get(0);
+        String b = hard.get(1);
+        String c = hard.get(2);
+        String d = hard.get(3);
+        cache.solve(a, SolveMode.GUESS);
+        cache.solve(b, SolveMode.GUESS);
+        cache.solve(c, SolveMode.GUESS);
+        assertEquals(3, cache.size());
+        assertEquals(3 * bytes, cache.getBytes());
+
+        // a is used again, so b is now the least recently used and goes
+        cache.solve(a, SolveMode.GUESS);
+        cache.solve(d, SolveMode.GUESS);
+        assertEquals(3, cache.size());
+        assertEquals(3 * bytes, cache.getBytes());
+        assertEquals(1, cache.getHits());
+
+        cache.solve(b, SolveMode.GUESS);
+        assertEquals(1, cache.getHits());
+        // b came back in place of c, a and d stayed
+        cache.solve(a, SolveMode.GUESS);
+        cache.solve(d, SolveMode.GUESS);
+        assertEquals(3, cache.getHits());
+        cache.solve(c, SolveMode.GUESS);
+        assertEquals(3, cache.getHits());
+        assertEquals(6, cache.getMisses());
+    }
+
+    @Test
+    void keepsNothingUnderABudgetOfLessThanOneEntry() {
+        long bytes = entryBytes(hard.get(0));
+        SolutionCache cache = new SolutionCache(bytes - 1);
+        cache.solve(hard.get(0), SolveMode.GUESS);
+        cache.solve(hard.get(0), SolveMode.GUESS);
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getBytes());
+        assertEquals(0, cache.getHits());
+    }
+
+    // A puzzle that needed guessing does not answer a TECHNIQUES solve,
+    // and only a UNIQUE solve answers another one
+    @Test
+    void answersOnlyTheModesTheEntryCovers() {
+        SolutionCache cache = new SolutionCache(1 << 20);
+        String puzzle = hard.get(0);
+        cache.solve(puzzle, SolveMode.GUESS);
+        assertEquals(SolveResult.Status.UNSOLVED, cache.solve(puzzle, SolveMode.TECHNIQUES).getStatus());
+        assertEquals(0, cache.getHits());
+        cache.solve(puzzle, SolveMode.UNIQUE);
+        assertEquals(0, cache.getHits());
+        assertTrue(cache.solve(puzzle, SolveMode.UNIQUE).isSolved());
+        assertEquals(1, cache.getHits());
+        // A later GUESS solve keeps the entry knowing it is unique
+        cache.solve(puzzle, SolveMode.GUESS);
+        assertTrue(cache.solve(puzzle, SolveMode.UNIQUE).isSolved());
+        assertEquals(3, cache.getHits());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void invalidPuzzlesAreNotCached() {
+        SolutionCache cache = new SolutionCache(1 << 20);
+        assertEquals(SolveResult.Status.INVALID, cache.solve("12", SolveMode.GUESS).getStatus());
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHits() + cache.getMisses());
+    }
+}
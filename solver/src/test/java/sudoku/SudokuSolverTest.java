@@ -0,0 +1,156 @@
+package sudoku;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class SudokuSolverTest {
+    @ParameterizedTest
+    @ValueSource(strings = {"easy", "hard", "seventeen", "sixteen", "pathological"})
+    void guessingFindsTheSolutionOfDancingLinks(String corpus) {
+        for (String puzzle : Corpora.load(corpus)) {
+            SudokuSolver solver = new SudokuSolver(SudokuSolver.gridSizeOf(puzzle.length()));
+            solver.setGuessingAllowed(true);
+            solver.load(puzzle);
+            assertTrue(solver.solve(), puzzle);
+            assertEquals(Corpora.solveWithDancingLinks(puzzle), solver.getSolution(), puzzle);
+        }
+    }
+
+    // One solver loads the puzzles one after the other, as BatchSolver does
+    @ParameterizedTest
+    @ValueSource(strings = {"easy", "hard", "sixteen"})
+    void reusedSolverForgetsThePuzzleBefore(String corpus) {
+        SudokuSolver solver = null;
+        for (String puzzle : Corpora.load(corpus)) {
+            if (solver == null) {
+                solver = new SudokuSolver(SudokuSolver.gridSizeOf(puzzle.length()));
+                solver.setGuessingAllowed(true);
+            }
+            solver.load(puzzle);
+            assertTrue(solver.solve(), puzzle);
+            assertTrue(Corpora.isSolutionOf(solver.getSolution(), puzzle), puzzle);
+        }
+    }
+
+    // Without guessing the techniques may get stuck, but every cell they
+    // solve must hold the value of the solution
+    @ParameterizedTest
+    @ValueSource(strings = {"easy", "hard", "seventeen", "sixteen", "pathological"})
+    void techniquesOnlyPlaceValuesOfTheSolution(String corpus) {
+        for (String puzzle : Corpora.load(corpus)) {
+            String solution = Corpora.solveWithDancingLinks(puzzle);
+            SudokuSolver solver = new SudokuSolver(SudokuSolver.gridSizeOf(puzzle.length()));
+            solver.load(puzzle);
+            boolean solved = solver.solve();
+            String grid = solver.getSolution();
+            for (int cell = 0; cell < grid.length(); ++cell) {
+                if (grid.charAt(cell) != '.') {
+                    assertEquals(solution.charAt(cell), grid.charAt(cell), puzzle + " cell " + cell);
+                }
+            }
+            assertEquals(solved, grid.indexOf('.') < 0, puzzle);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"easy", "hard", "seventeen", "pathological"})
+    void corpusPuzzlesHaveOneSolution(String corpus) {
+        for (String puzzle : Corpora.load(corpus)) {
+            SudokuSolver solver = new SudokuSolver(SudokuSolver.gridSizeOf(puzzle.length()));
+            solver.load(puzzle);
+            SolutionCount count = solver.countSolutions(2);
+            assertTrue(count.isUnique(), puzzle);
+            assertEquals(Corpora.solveWithDancingLinks(puzzle), count.getSolutions().get(0), puzzle);
+        }
+    }
+
+    // One SolutionCount goes from a puzzle with many solutions to unique ones
+    @Test
+    void reusedSolutionCountForgetsThePuzzleBefore() {
+        SudokuSolver solver = new SudokuSolver(9);
+        SolutionCount count = new SolutionCount(3);
+        char[] solution = new char[81];
+        String open = "." + Corpora.solveWithDancingLinks(Corpora.load("easy").get(0)).substring(1, 40)
+                + ".".repeat(41);
+        solver.load(open);
+        assertSame(count, solver.countSolutions(count));
+        assertTrue(count.reachedLimit());
+        assertEquals(3, count.getSolutions().stream().distinct().count());
+        for (int i = 0; i < 3; ++i) {
+            count.getSolution(i, solution);
+            assertTrue(Corpora.isSolutionOf(new String(solution), open));
+        }
+        for (String puzzle : Corpora.load("hard")) {
+            solver.load(puzzle);
+            solver.countSolutions(count);
+            assertEquals(1, count.getCount(), puzzle);
+            assertTrue(count.isUnique(), puzzle);
+            count.getSolution(0, solution);
+            assertEquals(Corpora.solveWithDancingLinks(puzzle), new String(solution), puzzle);
+            assertThrows(IndexOutOfBoundsException.class, () -> count.getSolution(1));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"easy", "hard", "sixteen"})
+    void libraryModesAgree(String corpus) {
+        for (String puzzle : Corpora.load(corpus)) {
+            String solution = Corpora.solveWithDancingLinks(puzzle);
+            for (SolveMode mode : new SolveMode[] {SolveMode.GUESS, SolveMode.UNIQUE, SolveMode.PARALLEL,
+                    SolveMode.DANCING_LINKS}) {
+                SolveResult result = Sudoku.solve(puzzle, mode);
+                assertEquals(SolveResult.Status.SOLVED, result.getStatus(), mode + " " + puzzle);
+                assertEquals(solution, result.getSolution(), mode + " " + puzzle);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"hard", "pathological"})
+    void techniquesModeLeavesHardPuzzlesUnsolvedButConsistent(String corpus) {
+        for (String puzzle : Corpora.load(corpus)) {
+            SolveResult result = Sudoku.solve(puzzle, SolveMode.TECHNIQUES);
+            if (result.isSolved()) {
+                assertTrue(Corpora.isSolutionOf(result.getSolution(), puzzle), puzzle);
+            } else {
+                assertEquals(SolveResult.Status.UNSOLVED, result.getStatus(), puzzle);
+                assertFalse(result.getGrid().indexOf('.') < 0, puzzle);
+            }
+        }
+    }
+
+    @Test
+    void lineLengthGivesTheGrid() {
+        int[] sizes = {4, 9, 16, 25, 36};
+        for (int size : sizes) {
+            assertEquals(size, SudokuSolver.gridSizeOf(size * size));
+            assertThrows(IllegalArgumentException.class, () -> SudokuSolver.gridSizeOf(size * size - 1));
+            assertThrows(IllegalArgumentException.class, () -> SudokuSolver.gridSizeOf(size * size + 1));
+        }
+    }
+
+    // A 36x36 line cut short is no 25x25 puzzle, and characters past the
+    // last cell are not dropped
+    @Test
+    void lineOfTheWrongLengthIsInvalid() {
+        String nine = Corpora.load("easy").get(0);
+        String[] lines = {".".repeat(36 * 36 - 1), nine + ".", nine + "x", nine.substring(1), nine + nine};
+        for (String line : lines) {
+            assertEquals(SolveResult.Status.INVALID, Sudoku.solve(line).getStatus(), line);
+            assertEquals(SolveResult.Status.INVALID, Sudoku.solve(line, SolveMode.DANCING_LINKS).getStatus(), line);
+        }
+        SudokuSolver solver = new SudokuSolver(9);
+        assertThrows(IllegalArgumentException.class, () -> solver.load(nine + "1"));
+        assertThrows(IllegalArgumentException.class, () -> solver.load((nine + "1").toCharArray()));
+        assertThrows(IllegalArgumentException.class, () -> solver.load(nine.substring(1).getBytes()));
+        SudokuSolver big = new SudokuSolver(36);
+        assertThrows(IllegalArgumentException.class, () -> big.load(lines[0]));
+    }
+}
@@ -0,0 +1,164 @@
+package sudoku;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+// Every placement and elimination of a technique is checked against the
+// solution the exact cover solver finds, as it happens. Guessing stays
+// off, a guess that turns out wrong may rightly remove the solution.
+class TechniqueTest {
+    // Fails on the first placement or elimination that contradicts the solution
+    private static final class SolutionChecker implements SolveListener {
+        private final int gridSize;
+        private final long[] eliminations = new long[Technique.values().length];
+        private String puzzle;
+        private String solution;
+
+        SolutionChecker(int gridSize) {
+            this.gridSize = gridSize;
+        }
+
+        void expect(String puzzle, String solution) {
+            this.puzzle = puzzle;
+            this.solution = solution;
+        }
+
+        @Override
+        public void placed(int row, int col, char value, Technique technique) {
+            assertEquals(solution.charAt(row * gridSize + col), value,
+                    technique + " placed a wrong value at " + row + "," + col + " of " + puzzle);
+        }
+
+        @Override
+        public void eliminated(int row, int col, long symbols, Technique technique) {
+            char want = solution.charAt(row * gridSize + col);
+            assertTrue(SudokuSolver.symbolsOf(symbols).indexOf(want) < 0,
+                    technique + " removed " + want + " at " + row + "," + col + " of " + puzzle);
+            eliminations[technique.ordinal()] += Long.bitCount(symbols);
+        }
+
+        long getEliminations(Technique technique) {
+            return eliminations[technique.ordinal()];
+        }
+    }
+
+    // Solves every puzzle of the sets of one grid size with the techniques
+    // given switched on and the ones given switched off, on top of the defaults
+    private static SolutionChecker solveAll(int gridSize, Set<Technique> on, Set<Technique> off) {
+        SolutionChecker checker = new SolutionChecker(gridSize);
+        SudokuSolver solver = new SudokuSolver(gridSize, checker);
+        for (Technique technique : on) {
+            solver.setTechniqueEnabled(technique, true);
+        }
+        for (Technique technique : off) {
+            solver.setTechniqueEnabled(technique, false);
+        }
+        for (String puzzle : Corpora.loadAll()) {
+            if (puzzle.length() != gridSize * gridSize) {
+                continue;
+            }
+            checker.expect(puzzle, Corpora.solveWithDancingLinks(puzzle));
+            solver.load(puzzle);
+            solver.solve();
+        }
+        return checker;
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = Technique.class, names = {"XY_WING", "XYZ_WING", "SIMPLE_COLORING", "X_CHAIN"})
+    void newTechniqueOnlyRemovesWhatTheSolutionRules(Technique technique) {
+        for (int gridSize : new int[] {9, 16}) {
+            SolutionChecker checker = solveAll(gridSize, EnumSet.of(technique), EnumSet.noneOf(Technique.class));
+            if (gridSize == 9) {
+                assertTrue(checker.getEliminations(technique) > 0, technique + " never fired");
+            }
+        }
+    }
+
+    // The new techniques run only after the older ones are stuck, with
+    // those off they get far more of the grid to work on
+    @ParameterizedTest
+    @EnumSource(value = Technique.class, names = {"XY_WING", "XYZ_WING", "SIMPLE_COLORING", "X_CHAIN"})
+    void newTechniqueAloneOnlyRemovesWhatTheSolutionRules(Technique technique) {
+        Set<Technique> off = EnumSet.of(Technique.BLOCK_RESTRICTION, Technique.HIDDEN_SET, Technique.CLOSED_SET,
+                Technique.NX_WING);
+        SolutionChecker checker = solveAll(9, EnumSet.of(technique), off);
+        assertTrue(checker.getEliminations(technique) > 0, technique + " never fired");
+    }
+
+    @Test
+    void allTechniquesTogetherOnlyRemoveWhatTheSolutionRules() {
+        Set<Technique> on = EnumSet.of(Technique.XY_WING, Technique.XYZ_WING, Technique.SIMPLE_COLORING,
+                Technique.X_CHAIN);
+        for (int gridSize : new int[] {9, 16}) {
+            solveAll(gridSize, on, EnumSet.noneOf(Technique.class));
+        }
+    }
+
+    // With the hidden set techniques off findClosedSet looks for hidden sets itself
+    @Test
+    void closedSetWithoutHiddenSetsOnlyRemovesWhatTheSolutionRules() {
+        Set<Technique> off = EnumSet.of(Technique.HIDDEN_SINGLE, Technique.HIDDEN_SET);
+        SolutionChecker checker = solveAll(9, EnumSet.noneOf(Technique.class), off);
+        assertTrue(checker.getEliminations(Technique.CLOSED_SET) > 0);
+        assertEquals(0, checker.getEliminations(Technique.HIDDEN_SINGLE));
+        assertEquals(0, checker.getEliminations(Technique.HIDDEN_SET));
+    }
+
+    // The hidden set techniques switched off must not leave the techniques
+    // stuck any earlier, CLOSED_SET finds the same sets through naked sets
+    @Test
+    void closedSetWithoutHiddenSetsGetsAsFar() {
+        List<String> puzzles = Corpora.load("hard");
+        SudokuSolver all = new SudokuSolver(9);
+        SudokuSolver without = new SudokuSolver(9);
+        without.setTechniqueEnabled(Technique.HIDDEN_SINGLE, false);
+        without.setTechniqueEnabled(Technique.HIDDEN_SET, false);
+        for (String puzzle : puzzles) {
+            all.load(puzzle);
+            all.solve();
+            without.load(puzzle);
+            without.solve();
+            for (int row = 0; row < 9; ++row) {
+                for (int col = 0; col < 9; ++col) {
+                    assertEquals(all.getValue(row, col), without.getValue(row, col), puzzle);
+                    assertEquals(all.getPossibilities(row, col), without.getPossibilities(row, col), puzzle);
+                }
+            }
+        }
+    }
+
+    @Test
+    void newTechniquesStartOff() {
+        SudokuSolver solver = new SudokuSolver(9);
+        for (Technique technique : Technique.values()) {
+            boolean isNew = technique == Technique.XY_WING || technique == Technique.XYZ_WING
+                    || technique == Technique.SIMPLE_COLORING || technique == Technique.X_CHAIN;
+            assertEquals(!isNew, solver.isTechniqueEnabled(technique), technique.name());
+        }
+    }
+
+    @Test
+    void singlesAndGuessingCannotBeSwitched() {
+        SudokuSolver solver = new SudokuSolver(9);
+        assertThrows(IllegalArgumentException.class, () -> solver.setTechniqueEnabled(Technique.SINGLE, false));
+        assertThrows(IllegalArgumentException.class, () -> solver.setTechniqueEnabled(Technique.GUESSING, false));
+    }
+
+    @Test
+    void parsesTechniqueNames() {
+        assertEquals(EnumSet.of(Technique.XY_WING, Technique.X_CHAIN),
+                SudokuSolver.parseTechniques(" xy_wing, X_CHAIN,,"));
+        assertTrue(SudokuSolver.parseTechniques("").isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> SudokuSolver.parseTechniques("SWORDFISH"));
+    }
+}